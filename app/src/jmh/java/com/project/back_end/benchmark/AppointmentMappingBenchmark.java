@@ -0,0 +1,78 @@
+package com.project.back_end.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+
+/**
+ * AppointmentDTO mapping and Jackson serialization of the Map&lt;String, Object&gt;
+ * bodies the controllers return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    @Param({ "100", "1000" })
+    public int size;
+
+    private List<Appointment> appointments;
+    private Map<String, Object> appointmentResponse;
+    private Map<String, Object> doctorResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Doctor doctor = Fixtures.doctor(1);
+        appointments = Fixtures.appointments(doctor, Fixtures.patient(1), size);
+
+        appointmentResponse = new HashMap<>();
+        appointmentResponse.put("appointments", mapToDto());
+        doctorResponse = new HashMap<>();
+        doctorResponse.put("doctors", Fixtures.doctors(size));
+
+        // Same defaults Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> mapToDto() {
+        return appointments.stream()
+                .map(AppointmentDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeAppointments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointmentResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeDoctors() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctorResponse);
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.back_end.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.AvailabilityIndex;
+import com.project.back_end.services.DoctorSearchIndex;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.NdjsonStreamer;
+import com.project.back_end.services.TokenService;
+
+/**
+ * Availability computation for one doctor-day (served from the warm
+ * AvailabilityIndex), the slot check booking relies on, and the AM/PM filter
+ * over the whole doctor directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({ "1000" })
+    public int doctorCount;
+
+    private DoctorService doctorService;
+    private AvailabilityIndex availabilityIndex;
+    private LocalDateTime freeSlot;
+
+    @Setup
+    public void setUp() {
+        List<Doctor> directory = Fixtures.doctors(doctorCount);
+        Doctor doctor = directory.get(0);
+        // Four of the nine hourly slots are taken on the benchmark day
+        List<Appointment> booked = Fixtures.appointments(doctor, Fixtures.patient(1), 4);
+
+        DoctorRepository doctorRepository = InMemoryRepositories.stub(DoctorRepository.class)
+                .on("findById", args -> Optional.of(copyOf(directory.get((int) ((Long) args[0] - 1)))))
+                .on("existsById", args -> (Long) args[0] <= doctorCount)
+                .on("findDirectoryRows", args -> Fixtures.directoryRows(directory))
+                .on("findIdsAvailableIn", args -> directory.stream()
+                        .filter(d -> (d.getAvailabilityMask() & (Long) args[0]) != 0)
+                        .map(Doctor::getId)
+                        .toList())
+                .build();
+        AppointmentRepository appointmentRepository = InMemoryRepositories.stub(AppointmentRepository.class)
+                .on("findByDoctorIdAndAppointmentTimeBetween", args -> booked)
+                .build();
+        TokenService tokenService = Fixtures.tokenService(Duration.ofMinutes(5));
+
+        availabilityIndex = Fixtures.availabilityIndex(doctorRepository, appointmentRepository);
+
+        NdjsonStreamer ndjsonStreamer = new NdjsonStreamer(new ObjectMapper(), new NoOpTransactionManager());
+
+        doctorService = new DoctorService(doctorRepository, appointmentRepository, tokenService, availabilityIndex,
+                ndjsonStreamer, new DoctorSearchIndex(doctorRepository, new NoOpTransactionManager()),
+                Fixtures.doctorCatalog(doctorRepository), Fixtures.doctorSchedules(appointmentRepository));
+
+        freeSlot = Fixtures.DAY.atTime(15, 0);
+    }
+
+    // JPA hands out a fresh collection per load; mirror that so removeAll has real work to do
+    private static Doctor copyOf(Doctor doctor) {
+        Doctor copy = Fixtures.doctor(doctor.getId());
+        copy.setAvailableTimes(new ArrayList<>(doctor.getAvailableTimes()));
+        return copy;
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailability() {
+        return doctorService.getDoctorAvailability(1L, Fixtures.DAY);
+    }
+
+    @Benchmark
+    public AvailabilityIndex.SlotState checkSlot() {
+        return availabilityIndex.check(1L, freeSlot);
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctorsByTime() {
+        return doctorService.filterDoctorsByTime("PM");
+    }
+}
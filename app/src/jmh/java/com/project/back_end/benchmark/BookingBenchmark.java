@@ -0,0 +1,84 @@
+package com.project.back_end.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.AvailabilityIndex;
+import com.project.back_end.services.BookingEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Hundreds of concurrent bookers against one doctor. Every slot of a day is
+ * requested twice before the sequence moves on to the next day, so half of
+ * all attempts are conflicts resolved in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(200)
+public class BookingBenchmark {
+
+    private static final int SLOTS_PER_DAY = 24 * 60 / AvailabilityIndex.SLOT_MINUTES;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private BookingEngine bookingEngine;
+    private Doctor doctor;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        List<String> everySlot = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++)
+            everySlot.add(String.format("%02d:%02d", slot / 2, slot % 2 * 30));
+        doctor = Fixtures.doctor(1);
+        doctor.setAvailableTimes(everySlot);
+        patient = Fixtures.patient(1);
+
+        DoctorRepository doctorRepository = InMemoryRepositories.stub(DoctorRepository.class)
+                .on("findById", args -> Optional.of(doctor))
+                .build();
+        AppointmentRepository appointmentRepository = InMemoryRepositories.stub(AppointmentRepository.class)
+                .on("findByDoctorIdAndAppointmentTimeBetween", args -> List.of())
+                .on("saveAndFlush", args -> args[0])
+                .build();
+
+        AvailabilityIndex availabilityIndex = Fixtures.availabilityIndex(doctorRepository, appointmentRepository);
+        bookingEngine = new BookingEngine(appointmentRepository, availabilityIndex, new NoOpTransactionManager(),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public BookingEngine.Result book() {
+        long n = sequence.getAndIncrement();
+        long day = n / (2 * SLOTS_PER_DAY);
+        int slot = (int) (n % SLOTS_PER_DAY);
+        Appointment appointment = new Appointment(doctor, patient,
+                Fixtures.DAY.plusDays(day).atTime(slot / 2, slot % 2 * 30), 0);
+        return bookingEngine.book(appointment);
+    }
+}
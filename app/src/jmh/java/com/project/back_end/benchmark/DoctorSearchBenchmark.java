@@ -0,0 +1,120 @@
+package com.project.back_end.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorSearchIndex;
+
+/**
+ * Name and name-plus-specialty lookups over a large doctor directory. The
+ * scan variants model what LOWER(name) LIKE '%x%' costs the database: every
+ * row is lower-cased and searched. The index variants answer the same
+ * question from trigram postings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoctorSearchBenchmark {
+
+    private static final String[] FIRST = { "Amira", "Ben", "Chloe", "Dmitri", "Elena", "Farid", "Grace", "Hiro",
+            "Ines", "Jonas", "Karim", "Lena", "Malik", "Nora", "Omar", "Priya" };
+    private static final String[] LAST = { "Anderson", "Bouazizi", "Castillo", "Dubois", "Eriksen", "Fischer",
+            "Gasmi", "Haddad", "Ivanova", "Jensen", "Kowalski", "Laurent", "Moreau", "Nakamura", "Okafor", "Petrov" };
+
+    @Param({ "100000" })
+    public int doctorCount;
+
+    @Param({ "gasmi", "ana" })
+    public String name;
+
+    private List<Doctor> directory;
+    private DoctorSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        directory = Fixtures.doctors(doctorCount);
+        for (Doctor doctor : directory)
+            doctor.setName("Dr. " + FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]);
+        List<DoctorRepository.SearchRow> rows = new ArrayList<>(directory.size());
+        for (Doctor doctor : directory)
+            rows.add(row(doctor));
+        DoctorRepository doctorRepository = InMemoryRepositories.stub(DoctorRepository.class)
+                .on("findSearchRows", args -> rows)
+                .build();
+        index = new DoctorSearchIndex(doctorRepository, new NoOpTransactionManager());
+        index.search("warm", null);
+    }
+
+    @Benchmark
+    public List<Long> likeScanByName() {
+        return scan(name, null);
+    }
+
+    @Benchmark
+    public List<Long> indexByName() {
+        return index.search(name, null);
+    }
+
+    @Benchmark
+    public List<Long> likeScanByNameAndSpecialty() {
+        return scan(name, "cardiologist");
+    }
+
+    @Benchmark
+    public List<Long> indexByNameAndSpecialty() {
+        return index.search(name, "Cardiologist");
+    }
+
+    private List<Long> scan(String needle, String specialty) {
+        String lowered = needle.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        for (Doctor doctor : directory) {
+            if (!doctor.getName().toLowerCase(Locale.ROOT).contains(lowered))
+                continue;
+            if (specialty != null && !doctor.getSpecialty().toLowerCase(Locale.ROOT).equals(specialty))
+                continue;
+            ids.add(doctor.getId());
+        }
+        return ids;
+    }
+
+    private static DoctorRepository.SearchRow row(Doctor doctor) {
+        return new DoctorRepository.SearchRow() {
+            @Override
+            public Long getId() {
+                return doctor.getId();
+            }
+
+            @Override
+            public String getName() {
+                return doctor.getName();
+            }
+
+            @Override
+            public String getSpecialty() {
+                return doctor.getSpecialty();
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.back_end.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.back_end.config.PoolAdmission;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.AvailabilityIndex;
+import com.project.back_end.services.BookingEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A booking rush under both execution modes. Requests run either on a
+ * 200-thread pool, Tomcat's default maxThreads, or on a virtual thread
+ * each. Bookings hold one of 10 pooled connections (Hikari's default) for
+ * dbMillis behind the PoolAdmission used in virtual mode, while availability
+ * reads are answered from memory and only need a free request thread.
+ * Throughput and sample-time percentiles (p99) are reported per method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int TOMCAT_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final int SLOTS_PER_DAY = 24 * 60 / AvailabilityIndex.SLOT_MINUTES;
+
+    @Param({ "platform", "virtual" })
+    public String mode;
+
+    @Param({ "5" })
+    public int dbMillis;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ExecutorService requests;
+    private AvailabilityIndex availabilityIndex;
+    private BookingEngine bookingEngine;
+    private Doctor doctor;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        requests = mode.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_THREADS);
+
+        List<String> everySlot = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++)
+            everySlot.add(String.format("%02d:%02d", slot / 2, slot % 2 * 30));
+        doctor = Fixtures.doctor(1);
+        doctor.setAvailableTimes(everySlot);
+        patient = Fixtures.patient(1);
+
+        PoolAdmission connections = new PoolAdmission("jdbc", POOL_SIZE, Duration.ofSeconds(30));
+        DoctorRepository doctorRepository = InMemoryRepositories.stub(DoctorRepository.class)
+                .on("findById", args -> Optional.of(doctor))
+                .build();
+        AppointmentRepository appointmentRepository = InMemoryRepositories.stub(AppointmentRepository.class)
+                .on("findByDoctorIdAndAppointmentTimeBetween", args -> List.of())
+                .on("saveAndFlush", args -> {
+                    if (!connections.acquire())
+                        throw new IllegalStateException("No connection");
+                    try {
+                        Thread.sleep(dbMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        connections.release();
+                    }
+                    return args[0];
+                })
+                .build();
+
+        availabilityIndex = Fixtures.availabilityIndex(doctorRepository, appointmentRepository);
+        bookingEngine = new BookingEngine(appointmentRepository, availabilityIndex, new NoOpTransactionManager(),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        requests.shutdownNow();
+    }
+
+    @Benchmark
+    @Group("rush")
+    @GroupThreads(300)
+    public BookingEngine.Result book() throws Exception {
+        long n = sequence.getAndIncrement();
+        int slot = (int) (n % SLOTS_PER_DAY);
+        Appointment appointment = new Appointment(doctor, patient,
+                Fixtures.DAY.plusDays(n / SLOTS_PER_DAY).atTime(slot / 2, slot % 2 * 30), 0);
+        return requests.submit(() -> bookingEngine.book(appointment)).get();
+    }
+
+    @Benchmark
+    @Group("rush")
+    @GroupThreads(100)
+    public List<String> availability() throws Exception {
+        return requests.submit(() -> availabilityIndex.availableTimes(1L, Fixtures.DAY)).get();
+    }
+}
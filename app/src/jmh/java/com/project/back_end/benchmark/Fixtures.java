@@ -0,0 +1,163 @@
+package com.project.back_end.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.back_end.config.MongoIndexes;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorRepository.DirectoryRow;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.AvailabilityIndex;
+import com.project.back_end.services.DoctorCatalog;
+import com.project.back_end.services.DoctorSchedules;
+import com.project.back_end.services.TokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+public final class Fixtures {
+
+    public static final String JWT_SECRET = "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M";
+
+    public static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    private static final String[] SPECIALTIES = { "Cardiologist", "Dermatologist", "Neurologist", "Pediatrician" };
+
+    private Fixtures() {
+    }
+
+    // Hourly slots from 09:00 to 17:00, the shape the admin dashboard creates
+    public static List<String> workingDay() {
+        List<String> slots = new ArrayList<>();
+        for (int hour = 9; hour <= 17; hour++)
+            slots.add(String.format("%02d:00", hour));
+        return slots;
+    }
+
+    public static Doctor doctor(long id) {
+        Doctor doctor = new Doctor("Dr. Doctor " + id, SPECIALTIES[(int) (id % SPECIALTIES.length)],
+                "doctor" + id + "@clinic.com", "secret1", "5550000000", workingDay());
+        doctor.setId(id);
+        return doctor;
+    }
+
+    public static List<Doctor> doctors(int count) {
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++)
+            doctors.add(doctor(id));
+        return doctors;
+    }
+
+    public static Patient patient(long id) {
+        Patient patient = new Patient("Patient " + id, "patient" + id + "@mail.com", "secret1",
+                "5551111111", "1 Main Street");
+        patient.setId(id);
+        return patient;
+    }
+
+    public static Appointment appointment(long id, Doctor doctor, Patient patient, LocalDateTime time) {
+        Appointment appointment = new Appointment(doctor, patient, time, 0);
+        appointment.setId(id);
+        return appointment;
+    }
+
+    // One appointment per hour starting at 09:00, spilling into following days
+    public static List<Appointment> appointments(Doctor doctor, Patient patient, int count) {
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime time = DAY.plusDays(i / 9).atTime(9 + i % 9, 0);
+            appointments.add(appointment(i + 1, doctor, patient, time));
+        }
+        return appointments;
+    }
+
+    // Directory rows as DoctorRepository.findDirectoryRows returns them
+    public static List<DirectoryRow> directoryRows(List<Doctor> doctors) {
+        List<DirectoryRow> rows = new ArrayList<>();
+        for (Doctor d : doctors)
+            for (String time : d.getAvailableTimes())
+                rows.add(new DirectoryRow(d.getId(), d.getName(), d.getSpecialty(), d.getEmail(), d.getPhone(),
+                        d.getAvailabilityMask(), time));
+        return rows;
+    }
+
+    public static TokenService tokenService(Duration cacheTtl) {
+        AdminRepository admins = InMemoryRepositories.stub(AdminRepository.class)
+                .on("existsByUsername", args -> true)
+                .build();
+        DoctorRepository doctors = InMemoryRepositories.stub(DoctorRepository.class)
+                .on("existsByEmail", args -> true)
+                .on("findByEmail", args -> doctor(1))
+                .build();
+        PatientRepository patients = InMemoryRepositories.stub(PatientRepository.class)
+                .on("existsByEmail", args -> true)
+                .build();
+
+        TokenService tokenService = new TokenService(admins, doctors, patients, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(tokenService, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenService, "cacheTtl", cacheTtl);
+        ReflectionTestUtils.invokeMethod(tokenService, "init");
+        return tokenService;
+    }
+
+    public static AvailabilityIndex availabilityIndex(DoctorRepository doctors, AppointmentRepository appointments) {
+        AvailabilityIndex index = new AvailabilityIndex(doctors, appointments, new NoOpTransactionManager(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxEntries", 50_000L);
+        ReflectionTestUtils.setField(index, "expireAfterAccess", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(index, "init");
+        return index;
+    }
+
+    public static DoctorCatalog doctorCatalog(DoctorRepository doctors) {
+        DoctorCatalog catalog = new DoctorCatalog(doctors, new NoOpTransactionManager(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(catalog, "maxDoctors", 200_000L);
+        ReflectionTestUtils.setField(catalog, "expireAfterWrite", Duration.ofMinutes(30));
+        ReflectionTestUtils.invokeMethod(catalog, "init");
+        return catalog;
+    }
+
+    public static DoctorSchedules doctorSchedules(AppointmentRepository appointments) {
+        DoctorSchedules schedules = new DoctorSchedules(appointments, new NoOpTransactionManager(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(schedules, "maxDays", 10_000L);
+        ReflectionTestUtils.setField(schedules, "expireAfterWrite", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(schedules, "init");
+        return schedules;
+    }
+
+    // The @Indexed prescription indexes, created once as MongoIndexes does at startup
+    public static ObjectProvider<MongoIndexes> mongoIndexes(MongoTemplate mongoTemplate) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.getPersistentEntity(Prescription.class);
+        MongoIndexes indexes = new MongoIndexes(mongoTemplate, mappingContext);
+        if (!Boolean.TRUE.equals(ReflectionTestUtils.invokeMethod(indexes, "createIndexes")))
+            throw new IllegalStateException("Could not create the prescription indexes");
+        return new ObjectProvider<>() {
+            @Override
+            public MongoIndexes getObject() {
+                return indexes;
+            }
+        };
+    }
+}
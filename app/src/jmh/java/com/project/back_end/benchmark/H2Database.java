@@ -0,0 +1,78 @@
+package com.project.back_end.benchmark;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * An in-memory H2 database with the application's entities and real Spring
+ * Data repositories, for benchmarks that need actual SQL, JDBC and Hibernate
+ * work rather than InMemoryRepositories stubs. No Spring context is started.
+ */
+public final class H2Database implements AutoCloseable {
+
+    private final LocalContainerEntityManagerFactoryBean factoryBean;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaRepositoryFactory repositoryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public H2Database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.project.back_end.models");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Same naming and batching as the application
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.implicit_naming_strategy",
+                "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy",
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        repositoryFactory = new JpaRepositoryFactory(entityManager);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    public <T> T repository(Class<T> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+
+    // Runs work in one transaction, e.g. to seed the tables
+    public void inTransaction(Consumer<EntityManager> work) {
+        transactionTemplate.executeWithoutResult(
+                status -> work.accept(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory)));
+    }
+
+    // Runs a read the way a @Transactional(readOnly = true) service method does
+    public <T> T readOnly(Supplier<T> read) {
+        return readOnlyTemplate.execute(status -> read.get());
+    }
+
+    @Override
+    public void close() {
+        factoryBean.destroy();
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds repository stubs backed by plain lambdas so the services can be
+ * benchmarked without MySQL or MongoDB. Only the methods a benchmark
+ * registers are callable; anything else fails loudly.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static <T> Builder<T> stub(Class<T> repositoryType) {
+        return new Builder<>(repositoryType);
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> repositoryType;
+        private final Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+
+        private Builder(Class<T> repositoryType) {
+            this.repositoryType = repositoryType;
+        }
+
+        public Builder<T> on(String methodName, Function<Object[], Object> handler) {
+            handlers.put(methodName, handler);
+            return this;
+        }
+
+        public T build() {
+            Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                    new Class<?>[] { repositoryType },
+                    (self, method, args) -> {
+                        Function<Object[], Object> handler = handlers.get(method.getName());
+                        if (handler != null)
+                            return handler.apply(args);
+                        return switch (method.getName()) {
+                            case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                            case "hashCode" -> System.identityHashCode(self);
+                            case "equals" -> self == args[0];
+                            default -> throw new UnsupportedOperationException(
+                                    repositoryType.getSimpleName() + "." + method.getName() + " is not stubbed");
+                        };
+                    });
+            return repositoryType.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.back_end.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+
+/**
+ * A patient's full history and the doctor-name filter, in read-only
+ * transactions against H2: managed Appointment entities (with their Doctor
+ * and Patient) mapped to AppointmentDTOs, against AppointmentDTOs built by
+ * the query's constructor expression. The condition benchmarks compare the
+ * old filter-in-Java over the whole history with the time cut, sort and limit
+ * done by the database. Run with -prof gc for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientHistoryBenchmark {
+
+    private static final int DOCTORS = 10;
+    private static final Sort BY_TIME = Sort.by("appointmentTime", "id");
+
+    @Param({ "10000" })
+    public int appointments;
+
+    private H2Database database;
+    private AppointmentRepository appointmentRepository;
+    private Long patientId;
+
+    @Setup
+    public void setUp() {
+        database = new H2Database("history");
+        appointmentRepository = database.repository(AppointmentRepository.class);
+
+        Patient patient = new Patient("Patient 1", "patient1@mail.com", "secret1", "5551111111", "1 Main Street");
+        database.inTransaction(em -> {
+            em.persist(patient);
+            List<Doctor> doctors = new ArrayList<>();
+            for (int i = 1; i <= DOCTORS; i++) {
+                Doctor doctor = new Doctor("Dr. Doctor " + i, "Cardiologist", "doctor" + i + "@clinic.com",
+                        "secret1", "5550000000", Fixtures.workingDay());
+                em.persist(doctor);
+                doctors.add(doctor);
+            }
+            // Times in the future, as the entity requires; one slot per doctor-hour
+            for (int i = 0; i < appointments; i++) {
+                int slot = i / DOCTORS;
+                LocalDateTime time = Fixtures.DAY.plusDays(slot / 9).atTime(9 + slot % 9, 0);
+                em.persist(new Appointment(doctors.get(i % DOCTORS), patient, time, 0));
+            }
+        });
+        // Half of the history in the past, out of validation's reach
+        database.inTransaction(em -> em.createNativeQuery(
+                "UPDATE appointment SET appointment_time = DATEADD('YEAR', -10, appointment_time) WHERE MOD(id, 2) = 0")
+                .executeUpdate());
+        patientId = patient.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> futureFilteredInJava() {
+        return database.readOnly(() -> appointmentRepository.findDtosByPatientId(patientId).stream()
+                .filter(a -> a.getAppointmentTime().isAfter(LocalDateTime.now()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> futureInDatabase() {
+        return database.readOnly(() -> appointmentRepository.findDtosAfter(patientId, LocalDateTime.now(), null,
+                null, BY_TIME, Limit.unlimited()));
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> nextUpcoming() {
+        return database.readOnly(() -> appointmentRepository.findDtosAfter(patientId, LocalDateTime.now(), null,
+                0, BY_TIME, Limit.of(1)));
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> historyEntities() {
+        return database.readOnly(() -> appointmentRepository.findByPatient_Id(patientId).stream()
+                .map(AppointmentDTO::new)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> historyConstructorExpression() {
+        return database.readOnly(() -> appointmentRepository.findDtosByPatientId(patientId));
+    }
+
+    // "Doctor 1" matches Dr. Doctor 1 and Dr. Doctor 10: a fifth of the history
+    @Benchmark
+    public List<AppointmentDTO> doctorFilterEntities() {
+        return database.readOnly(() -> appointmentRepository.filterByDoctorNameAndPatientId("Doctor 1", patientId)
+                .stream()
+                .map(AppointmentDTO::new)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> doctorFilterConstructorExpression() {
+        return database.readOnly(() -> appointmentRepository.findDtosByDoctorNameAndPatientId("Doctor 1", patientId));
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.back_end.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.DoctorSummary;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+/**
+ * Listing reads against H2 through the real repositories: loading entities
+ * and mapping them (the old path) against selecting only the listed columns
+ * (the projections the services now use). Run with the benchmark profile's
+ * -prof gc to compare allocation per operation as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final String SPECIALTY = "Cardiologist";
+
+    @Param({ "1000" })
+    public int rows;
+
+    private H2Database database;
+    private DoctorRepository doctorRepository;
+    private AppointmentRepository appointmentRepository;
+    private Long patientId;
+
+    @Setup
+    public void setUp() {
+        database = new H2Database("projections");
+        doctorRepository = database.repository(DoctorRepository.class);
+        appointmentRepository = database.repository(AppointmentRepository.class);
+
+        Patient patient = new Patient("Patient 1", "patient1@mail.com", "secret1", "5551111111", "1 Main Street");
+        database.inTransaction(em -> {
+            em.persist(patient);
+            Doctor first = null;
+            for (int i = 1; i <= rows; i++) {
+                Doctor doctor = new Doctor("Dr. Doctor " + i, i % 4 == 0 ? SPECIALTY : "Dermatologist",
+                        "doctor" + i + "@clinic.com", "secret1", "5550000000", Fixtures.workingDay());
+                em.persist(doctor);
+                if (first == null)
+                    first = doctor;
+            }
+            // Times in the future, as the entity requires
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime time = Fixtures.DAY.plusDays(i / 9).atTime(9 + i % 9, 0);
+                em.persist(new Appointment(first, patient, time, 0));
+            }
+        });
+        patientId = patient.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Doctor> specialtyEntities() {
+        return doctorRepository.findBySpecialtyIgnoreCase(SPECIALTY);
+    }
+
+    @Benchmark
+    public List<DoctorSummary> specialtyProjection() {
+        return DoctorSummary.fromRows(doctorRepository.findDirectoryRowsBySpecialty(SPECIALTY));
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> patientAppointmentEntities() {
+        return appointmentRepository.findByPatient_Id(patientId).stream().map(AppointmentDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> patientAppointmentProjection() {
+        return appointmentRepository.findDtosByPatientId(patientId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.back_end.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.back_end.services.TokenService;
+
+/**
+ * JWT generation, subject extraction and role validation. The "cold" variants
+ * run against a service whose principal cache never holds entries, so every
+ * call pays signature verification plus the repository lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService cachedService;
+    private TokenService coldService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedService = Fixtures.tokenService(Duration.ofMinutes(5));
+        coldService = Fixtures.tokenService(Duration.ZERO);
+        token = cachedService.generateToken("patient1@mail.com");
+        cachedService.validateToken(token, "patient");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken("patient1@mail.com");
+    }
+
+    @Benchmark
+    public String extractIdentifierCold() {
+        return coldService.extractIdentifier(token);
+    }
+
+    @Benchmark
+    public String extractIdentifierCached() {
+        return cachedService.extractIdentifier(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenCold() {
+        return coldService.validateToken(token, "patient");
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return cachedService.validateToken(token, "patient");
+    }
+}
@@ -19,12 +19,8 @@ public class AppointmentDTO {
     private LocalDateTime appointmentTime;
     private int status;
 
-    // Derived fields
-    private LocalDate appointmentDate;
-    private LocalTime appointmentTimeOnly;
-    private LocalDateTime endTime;
-
-    // Constructor
+    // Also the constructor AppointmentRepository's JPQL constructor expressions
+    // call, one per row
     public AppointmentDTO(Long id,
             Long doctorId,
             String doctorName,
@@ -45,13 +41,6 @@ public class AppointmentDTO {
         this.patientAddress = patientAddress;
         this.appointmentTime = appointmentTime;
         this.status = status;
-
-        // Compute derived fields
-        if (appointmentTime != null) {
-            this.appointmentDate = appointmentTime.toLocalDate();
-            this.appointmentTimeOnly = appointmentTime.toLocalTime();
-            this.endTime = appointmentTime.plusHours(1);
-        }
     }
 
     public AppointmentDTO(Appointment appointment) {
@@ -109,16 +98,18 @@ public class AppointmentDTO {
         return status;
     }
 
+    // Derived fields, computed when read (in practice once, by serialization)
+    // rather than for every row a query builds
     public LocalDate getAppointmentDate() {
-        return appointmentDate;
+        return appointmentTime != null ? appointmentTime.toLocalDate() : null;
     }
 
     public LocalTime getAppointmentTimeOnly() {
-        return appointmentTimeOnly;
+        return appointmentTime != null ? appointmentTime.toLocalTime() : null;
     }
 
     public LocalDateTime getEndTime() {
-        return endTime;
+        return appointmentTime != null ? appointmentTime.plusHours(1) : null;
     }
 
 }
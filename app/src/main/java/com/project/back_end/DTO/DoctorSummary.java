@@ -0,0 +1,75 @@
+package com.project.back_end.DTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.back_end.repo.DoctorRepository.DirectoryRow;
+
+// The columns doctor listings return, read without loading Doctor entities.
+// Serializes like Doctor: no password, no availability mask.
+public record DoctorSummary(Long id,
+        String name,
+        String specialty,
+        String email,
+        String phone,
+        List<String> availableTimes,
+        @JsonIgnore Long availabilityMask) {
+
+    // Folds one-row-per-time directory rows, ordered by doctor id, into one
+    // summary per doctor
+    public static List<DoctorSummary> fromRows(List<DirectoryRow> rows) {
+        return fromRows(rows.stream()).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Same, lazily: each summary is built once the next doctor's first row (or
+    // the end) is read. Closing the result closes rows.
+    public static Stream<DoctorSummary> fromRows(Stream<DirectoryRow> rows) {
+        Iterator<DirectoryRow> it = rows.iterator();
+        Iterator<DoctorSummary> doctors = new Iterator<>() {
+            private DirectoryRow first;
+
+            @Override
+            public boolean hasNext() {
+                if (first == null && it.hasNext())
+                    first = it.next();
+                return first != null;
+            }
+
+            @Override
+            public DoctorSummary next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                DirectoryRow row = first;
+                first = null;
+                List<String> times = new ArrayList<>();
+                if (row.availableTime() != null)
+                    times.add(row.availableTime());
+                while (it.hasNext()) {
+                    DirectoryRow following = it.next();
+                    if (!following.id().equals(row.id())) {
+                        first = following;
+                        break;
+                    }
+                    if (following.availableTime() != null)
+                        times.add(following.availableTime());
+                }
+                return summary(row, times);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(doctors, Spliterator.ORDERED), false)
+                .onClose(rows::close);
+    }
+
+    private static DoctorSummary summary(DirectoryRow row, List<String> times) {
+        return new DoctorSummary(row.id(), row.name(), row.specialty(), row.email(), row.phone(),
+                List.copyOf(times), row.availabilityMask());
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.back_end.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors for paged listings. Appointments are ordered by
+ * (appointmentTime, id) and doctors by id; a cursor carries the key of the
+ * last row of the previous page.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String APPOINTMENT = "a:";
+    private static final String DOCTOR = "d:";
+
+    private PageCursor() {
+    }
+
+    public record AppointmentKey(LocalDateTime appointmentTime, long id) {
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null)
+            return DEFAULT_LIMIT;
+        return Math.max(1, Math.min(MAX_LIMIT, requested));
+    }
+
+    public static String ofAppointment(LocalDateTime appointmentTime, Long id) {
+        return encode(APPOINTMENT + appointmentTime + "," + id);
+    }
+
+    // null cursor means "first page"
+    public static AppointmentKey appointmentKey(String cursor) {
+        if (cursor == null || cursor.isEmpty())
+            return null;
+        String value = decode(cursor, APPOINTMENT);
+        int comma = value.lastIndexOf(',');
+        try {
+            return new AppointmentKey(LocalDateTime.parse(value.substring(0, comma)),
+                    Long.parseLong(value.substring(comma + 1)));
+        } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String ofDoctor(Long id) {
+        return encode(DOCTOR + id);
+    }
+
+    public static long doctorKey(String cursor) {
+        if (cursor == null || cursor.isEmpty())
+            return 0L;
+        try {
+            return Long.parseLong(decode(cursor, DOCTOR));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor, String prefix) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!value.startsWith(prefix))
+            throw new IllegalArgumentException("Invalid cursor");
+        return value.substring(prefix.length());
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Prescription;
+
+// A prescription as the API returns it. Leaves out statusPendingSince, the
+// outbox marker that is stored (and journaled) with the document but is not
+// part of the prescription itself.
+public record PrescriptionDTO(String id,
+        String patientName,
+        Long appointmentId,
+        String medication,
+        String dosage,
+        String doctorNotes) {
+
+    public PrescriptionDTO(Prescription prescription) {
+        this(prescription.getId(), prescription.getPatientName(), prescription.getAppointmentId(),
+                prescription.getMedication(), prescription.getDosage(), prescription.getDoctorNotes());
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Body of PUT /appointments/status/{token}: either ids, or doctorId with a
+// date range (from and to inclusive) and the status the appointments are in now
+public record StatusChangeRequest(String status,
+        List<Long> ids,
+        Long doctorId,
+        LocalDate from,
+        LocalDate to,
+        String currentStatus) {
+}
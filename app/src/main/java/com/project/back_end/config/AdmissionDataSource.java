@@ -0,0 +1,77 @@
+package com.project.back_end.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Takes a PoolAdmission permit before borrowing a connection and returns it
+ * when the connection is closed, i.e. handed back to the pool.
+ */
+class AdmissionDataSource extends DelegatingDataSource {
+
+    private final PoolAdmission admission;
+
+    AdmissionDataSource(DataSource target, PoolAdmission admission) {
+        super(target);
+        this.admission = admission;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return admitted(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return admitted(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+    }
+
+    private void admit() throws SQLException {
+        if (!admission.acquire())
+            throw new SQLTransientConnectionException(
+                    "Timed out waiting for admission to the " + admission.pool() + " pool");
+    }
+
+    // The permit goes back exactly once, on the first close()
+    private Connection admitted(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            admission.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
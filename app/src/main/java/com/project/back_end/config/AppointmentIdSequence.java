@@ -0,0 +1,41 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Appointment;
+
+/**
+ * Appointment ids used to come from AUTO_INCREMENT. The sequence table that
+ * replaced it starts at 1, so on startup it is moved past the highest id
+ * already in use. Pooled ids are handed out below the stored value, hence the
+ * extra allocation block. This runs once every singleton (and so the schema)
+ * is in place but before the web server starts taking bookings.
+ */
+@Component
+public class AppointmentIdSequence implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentIdSequence.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentIdSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.update("UPDATE appointment_seq SET next_val = GREATEST(next_val, "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 + ? FROM appointment))",
+                    Appointment.ID_ALLOCATION_SIZE);
+        } catch (DataAccessException e) {
+            // Schema not created yet (or a database with native sequences); nothing to align
+            log.warn("Skipping appointment_seq alignment: {}", e.getMessage());
+        }
+    }
+}
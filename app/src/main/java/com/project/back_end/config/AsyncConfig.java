@@ -0,0 +1,13 @@
+package com.project.back_end.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * @Async methods run on Boot's applicationTaskExecutor, which follows
+ * spring.threads.virtual.enabled like Tomcat's request threads do.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+
+/**
+ * Doctor.availabilityMask was added after doctors already existed, and
+ * ddl-auto leaves the new column NULL on those rows. On startup each of them
+ * gets the mask derived from its available times so the JPQL bitand time
+ * filters see every doctor. This runs before the web server starts, so no
+ * request (or DoctorCatalog entry) sees a doctor without a mask; a failed
+ * backfill fails startup rather than leave those doctors out of searches.
+ */
+@Component
+public class DoctorAvailabilityMaskBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorAvailabilityMaskBackfill.class);
+
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate tx;
+
+    public DoctorAvailabilityMaskBackfill(DoctorRepository doctorRepository,
+            PlatformTransactionManager transactionManager) {
+        this.doctorRepository = doctorRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int backfilled = tx.execute(status -> {
+            List<Doctor> doctors = doctorRepository.findByAvailabilityMaskIsNull();
+            // Re-setting the list recomputes the mask; dirty checking writes it back
+            for (Doctor doctor : doctors)
+                doctor.setAvailableTimes(doctor.getAvailableTimes());
+            return doctors.size();
+        });
+        if (backfilled > 0)
+            log.info("Backfilled availability_mask for {} doctors", backfilled);
+    }
+}
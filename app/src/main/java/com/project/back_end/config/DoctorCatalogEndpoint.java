@@ -0,0 +1,60 @@
+package com.project.back_end.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.back_end.services.DoctorCatalog;
+
+/**
+ * /actuator/doctorcatalog: segment sizes and hit, miss and eviction counts of
+ * the doctor catalog cache. DELETE flushes the whole cache, or one specialty
+ * segment with /actuator/doctorcatalog/{specialty}; it is only mapped when
+ * management.endpoint.doctorcatalog.access is unrestricted, since the actuator
+ * takes no admin token.
+ */
+@Component
+@Endpoint(id = "doctorcatalog")
+public class DoctorCatalogEndpoint {
+
+    private final DoctorCatalog doctorCatalog;
+
+    public DoctorCatalogEndpoint(DoctorCatalog doctorCatalog) {
+        this.doctorCatalog = doctorCatalog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> catalog() {
+        CacheStats stats = doctorCatalog.stats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hits", stats.hitCount());
+        statistics.put("misses", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("loads", stats.loadCount());
+        statistics.put("loadFailures", stats.loadFailureCount());
+        statistics.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        statistics.put("evictions", stats.evictionCount());
+        statistics.put("evictedDoctors", stats.evictionWeight());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("segments", doctorCatalog.segmentSizes());
+        response.put("stats", statistics);
+        return response;
+    }
+
+    @DeleteOperation
+    public void flush() {
+        doctorCatalog.invalidateAll();
+    }
+
+    @DeleteOperation
+    public void flushSegment(@Selector String specialty) {
+        doctorCatalog.invalidateSegment(specialty);
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.back_end.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Creates the indexes declared with @Indexed on the Mongo documents, such as
+ * the unique index on Prescription.appointmentId that prescription writes
+ * rely on. Boot's auto-index-creation would do this while the Mongo template
+ * is built and block startup on an unreachable server; this runs once the
+ * application is up, on its own thread, and each attempt gives up after the
+ * driver's serverSelectionTimeoutMS (see spring.data.mongodb.uri). Indexes
+ * that could not be created (Mongo unreachable, or existing duplicates under
+ * a unique index) are retried with backoff until they are, and reported as
+ * DOWN under /actuator/health meanwhile. Until then isCreated() is false and
+ * PrescriptionService checks for an existing prescription itself. Creating an
+ * index that already exists is a no-op. Off with mongo.indexes.enabled=false,
+ * as in tests that run without Mongo.
+ */
+@Component
+@ConditionalOnProperty(name = "mongo.indexes.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoIndexes implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexes.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${mongo.indexes.retry-interval:1s}")
+    private Duration retryInterval;
+
+    @Value("${mongo.indexes.max-backoff:1m}")
+    private Duration maxBackoff;
+
+    // Index keys still to be created, null before the first attempt
+    private volatile List<String> missing;
+    private volatile boolean running;
+    private Thread worker;
+
+    public MongoIndexes(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("mongo-indexes").daemon().start(this::createLoop);
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(retryInterval.toMillis());
+        }
+    }
+
+    // Whether every declared index is known to exist
+    public boolean isCreated() {
+        List<String> current = missing;
+        return current != null && current.isEmpty();
+    }
+
+    @Override
+    public Health health() {
+        List<String> current = missing;
+        if (current == null)
+            return Health.unknown().withDetail("reason", "Index creation not attempted yet").build();
+        if (current.isEmpty())
+            return Health.up().build();
+        return Health.down().withDetail("missing", current).build();
+    }
+
+    private void createLoop() {
+        long backoff = retryInterval.toMillis();
+        while (running && !createIndexes()) {
+            log.warn("Retrying Mongo index creation in {} ms: {} still missing", backoff, missing);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+        }
+    }
+
+    // One attempt over every index; true once none is missing
+    boolean createIndexes() {
+        List<String> failed = new ArrayList<>();
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class))
+                continue;
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    mongoTemplate.indexOps(entity.getType()).createIndex(index);
+                } catch (DataAccessException e) {
+                    // Also what a unique index over existing duplicates fails with
+                    log.warn("Could not create index {} on {}: {}", index.getIndexKeys().toJson(),
+                            entity.getCollection(), e.getMessage());
+                    failed.add(entity.getCollection() + " " + index.getIndexKeys().toJson());
+                }
+            }
+        }
+        missing = List.copyOf(failed);
+        return failed.isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.back_end.config;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fair counting semaphore sized to a connection pool. With virtual threads
+ * there is no request thread limit in front of the pools any more, so
+ * thousands of requests can pile into a pool's own wait queue at once;
+ * callers queue here instead, in arrival order, and give up after the
+ * timeout.
+ */
+public final class PoolAdmission {
+
+    private final String pool;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public PoolAdmission(String pool, int permits, Duration timeout) {
+        this.pool = pool;
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // False when no permit freed up in time or the caller was interrupted
+    public boolean acquire() {
+        try {
+            return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String pool() {
+        return pool;
+    }
+}
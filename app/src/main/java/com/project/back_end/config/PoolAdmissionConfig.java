@@ -0,0 +1,66 @@
+package com.project.back_end.config;
+
+import java.time.Duration;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactoryBean;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Active in virtual-thread mode (spring.threads.virtual.enabled=true). The
+ * Hikari pool is fronted by an AdmissionDataSource with one permit per pooled
+ * connection, and every Mongo repository call takes a permit from a second
+ * PoolAdmission sized to the Mongo driver pool (admission.mongo.permits).
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PoolAdmissionConfig {
+
+    // Static so the post-processors do not pull this configuration in early
+    @Bean
+    public static BeanPostProcessor jdbcAdmission() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari))
+                    return bean;
+                return new AdmissionDataSource(hikari, new PoolAdmission("jdbc", hikari.getMaximumPoolSize(),
+                        Duration.ofMillis(hikari.getConnectionTimeout())));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor mongoAdmission(Environment environment) {
+        Binder binder = Binder.get(environment);
+        PoolAdmission admission = new PoolAdmission("mongo",
+                binder.bind("admission.mongo.permits", Integer.class).orElse(100),
+                binder.bind("admission.mongo.timeout", Duration.class).orElse(Duration.ofSeconds(2)));
+        MethodInterceptor admit = invocation -> {
+            if (!admission.acquire())
+                throw new DataAccessResourceFailureException("Timed out waiting for admission to the mongo pool");
+            try {
+                return invocation.proceed();
+            } finally {
+                admission.release();
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoRepositoryFactoryBean<?, ?, ?> factoryBean)
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(admit)));
+                return bean;
+            }
+        };
+    }
+}
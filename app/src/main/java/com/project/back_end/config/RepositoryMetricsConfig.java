@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult.State;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Spring Boot already times every repository call as
+ * spring.data.repository.invocations, tagged with repository, method, state
+ * and exception. This adds a store tag (jpa or mongo) to that timer and a
+ * spring.data.repository.errors counter with the same tags for failed calls.
+ * Histogram buckets are switched on in application.properties.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    public static final String ERRORS = "spring.data.repository.errors";
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.of(defaults.repositoryTags(invocation))
+                .and("store", storeOf(invocation.getRepositoryInterface()));
+    }
+
+    // Static so registering it does not initialize this configuration early
+    @Bean
+    public static BeanPostProcessor repositoryErrorCounter(ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<RepositoryTagsProvider> tagsProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation -> {
+                        if (invocation.getResult() != null && invocation.getResult().getState() == State.ERROR)
+                            meterRegistry.getObject()
+                                    .counter(ERRORS, tagsProvider.getObject().repositoryTags(invocation))
+                                    .increment();
+                    }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static String storeOf(Class<?> repositoryInterface) {
+        if (MongoRepository.class.isAssignableFrom(repositoryInterface))
+            return "mongo";
+        if (JpaRepository.class.isAssignableFrom(repositoryInterface))
+            return "jpa";
+        return "other";
+    }
+}
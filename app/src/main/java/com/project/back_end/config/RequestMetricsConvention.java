@@ -0,0 +1,28 @@
+package com.project.back_end.config;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.services.TokenService;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Adds a role tag to http.server.requests. The uri tag is already the route
+ * template (/doctor/{id}/{token}), so tokens in paths never reach a tag value;
+ * the role is the one TokenService checked the token against, or "none" for
+ * endpoints that take no token. SLO buckets and percentiles are set in
+ * application.properties.
+ */
+@Component
+public class RequestMetricsConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object role = context.getCarrier().getAttribute(TokenService.ROLE_ATTRIBUTE);
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of("role", role != null ? role.toString() : "none"));
+    }
+}
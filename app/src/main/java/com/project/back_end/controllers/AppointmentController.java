@@ -1,5 +1,9 @@
 package com.project.back_end.controllers;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,14 +18,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.StatusChangeRequest;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.BookingEngine;
 import com.project.back_end.services.Service_;
 
 @RestController
 @RequestMapping("/appointments")
 public class AppointmentController {
 
+    private static final int MAX_STATUS_IDS = 10_000;
+
     private final AppointmentService appointmentService;
     private final Service_ service;
 
@@ -40,8 +48,16 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
         }
-        List<Map<String, Object>> appointments = appointmentService.getAppointment(date, patientName);
-        return ResponseEntity.ok(Map.of("appointments", appointments));
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid date format, expected yyyy-MM-dd"));
+        }
+        // The dashboard sends "null" when the search box is empty
+        String nameFilter = "null".equals(patientName) ? null : patientName;
+        return ResponseEntity.ok(appointmentService.getAppointments(nameFilter, day, token));
     }
 
     // Book a new appointment (patient access)
@@ -52,21 +68,45 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
         }
-        int validation = service.validateAppointment(appointment);
-        if (validation == -1) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        // Availability check and slot reservation happen atomically in the booking engine
+        BookingEngine.Result result = appointmentService.bookAppointment(appointment);
+        return switch (result) {
+            case BOOKED -> ResponseEntity.status(HttpStatus.CREATED)
+                    .body(Map.of("message", "Appointment booked successfully"));
+            case UNKNOWN_DOCTOR -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Doctor does not exist"));
-        } else if (validation == 0) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Map.of("error", "Appointment slot is unavailable"));
+            case INVALID -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid appointment"));
+            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to book appointment"));
+        };
+    }
+
+    // Book a list of appointments in one request (admin / front desk access)
+    @PostMapping("/batch/{token}")
+    public ResponseEntity<?> bookAppointments(@PathVariable String token,
+            @RequestBody List<Appointment> appointments) {
+        if (!service.validateToken(token, "admin")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
         }
-        boolean booked = appointmentService.bookAppointment(appointment);
-        if (booked) {
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(Map.of("message", "Appointment booked successfully"));
+        List<BookingEngine.Result> results = appointmentService.bookAppointments(appointments);
+        List<Map<String, Object>> items = new ArrayList<>(results.size());
+        int booked = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("index", i);
+            item.put("status", results.get(i).name().toLowerCase());
+            if (results.get(i) == BookingEngine.Result.BOOKED) {
+                item.put("id", appointments.get(i).getId());
+                booked++;
+            }
+            items.add(item);
         }
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to book appointment"));
+        return ResponseEntity.status(booked > 0 ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(Map.of("booked", booked, "results", items));
     }
 
     // Update an existing appointment (patient access)
@@ -77,12 +117,21 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
         }
-        boolean updated = appointmentService.updateAppointment(appointment);
-        if (updated) {
-            return ResponseEntity.ok(Map.of("message", "Appointment updated successfully"));
-        }
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Failed to update appointment"));
+        // The new slot is claimed through the booking engine, as for a booking
+        BookingEngine.Result result = appointmentService.updateAppointment(appointment);
+        return switch (result) {
+            case BOOKED -> ResponseEntity.ok(Map.of("message", "Appointment updated successfully"));
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Appointment not found"));
+            case UNKNOWN_DOCTOR -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Doctor does not exist"));
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Appointment slot is unavailable"));
+            case INVALID -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid appointment"));
+            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update appointment"));
+        };
     }
 
     // Cancel an appointment (patient access)
@@ -100,4 +149,52 @@ public class AppointmentController {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to cancel appointment"));
     }
+
+    // Change the status of many appointments at once, e.g. to close out a day
+    // (doctor or admin access). Takes either ids, or doctorId, from, to and
+    // currentStatus; a doctor can only change their own appointments.
+    @PutMapping("/status/{token}")
+    public ResponseEntity<?> changeStatus(@PathVariable String token,
+            @RequestBody StatusChangeRequest request) {
+        boolean doctor = service.validateToken(token, "doctor");
+        Long ownDoctorId = doctor ? appointmentService.doctorIdFor(token) : null;
+        if (doctor ? ownDoctorId == null : !service.validateToken(token, "admin")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        if (!AppointmentService.isStatusName(request.status())) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "status must be scheduled, prescribed, completed or canceled"));
+        }
+        int status = AppointmentService.statusCode(request.status());
+
+        AppointmentService.StatusChange change;
+        if (request.ids() != null) {
+            if (request.ids().size() > MAX_STATUS_IDS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "At most " + MAX_STATUS_IDS + " appointment ids per request"));
+            }
+            if (request.ids().contains(null)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "ids must not contain null"));
+            }
+            change = appointmentService.changeStatus(status, request.ids(), ownDoctorId);
+        } else {
+            Long doctorId = request.doctorId() != null ? request.doctorId() : ownDoctorId;
+            if (doctorId == null || request.from() == null || request.to() == null
+                    || !AppointmentService.isStatusName(request.currentStatus())) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Give ids, or doctorId, from, to and currentStatus"));
+            }
+            if (ownDoctorId != null && !ownDoctorId.equals(doctorId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Doctors can only change their own appointments"));
+            }
+            if (request.to().isBefore(request.from())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "to must not be before from"));
+            }
+            change = appointmentService.changeStatus(status, doctorId, request.from(), request.to(),
+                    AppointmentService.statusCode(request.currentStatus()));
+        }
+        return ResponseEntity.ok(Map.of("matched", change.matched(), "updated", change.updated()));
+    }
 }
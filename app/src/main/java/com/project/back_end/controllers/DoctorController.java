@@ -1,12 +1,16 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.models.Doctor;
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.NdjsonStreamer;
 import com.project.back_end.services.Service_;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -26,12 +30,14 @@ public class DoctorController {
         this.service = service;
     }
 
-    // Get doctor availability for a given date (role-based)
+    // Get doctor availability for a given date (role-based); conditional on
+    // the day's version
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
     public ResponseEntity<?> getDoctorAvailability(@PathVariable String user,
             @PathVariable Long doctorId,
             @PathVariable String date,
-            @PathVariable String token) {
+            @PathVariable String token,
+            WebRequest request) {
         if (!service.validateToken(token, user)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
@@ -39,19 +45,46 @@ public class DoctorController {
 
         try {
             LocalDate localDate = LocalDate.parse(date); // convert string to LocalDate
+            String etag = ETags.of(doctorService.availabilityVersion(doctorId, localDate));
+            ResponseEntity<?> notModified = ETags.notModified(request, etag);
+            if (notModified != null)
+                return notModified;
             List<String> availability = doctorService.getDoctorAvailability(doctorId, localDate);
-            return ResponseEntity.ok(availability);
+            return ETags.ok(etag, availability);
         } catch (DateTimeParseException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Invalid date format, expected yyyy-MM-dd"));
         }
     }
 
-    // Get all doctors
+    // Get all doctors, or one keyset page of them when after/limit is given;
+    // conditional on the catalog version
     @GetMapping
-    public ResponseEntity<?> getDoctors() {
-        List<Doctor> doctors = doctorService.getDoctors();
-        return ResponseEntity.ok(Map.of("doctors", doctors));
+    public ResponseEntity<?> getDoctors(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = ETags.of(doctorService.catalogVersion());
+        ResponseEntity<?> notModified = ETags.notModified(request, etag);
+        if (notModified != null)
+            return notModified;
+        if (after != null || limit != null) {
+            try {
+                return ETags.ok(etag, doctorService.getDoctorPage(after, limit));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", e.getMessage()));
+            }
+        }
+        List<DoctorSummary> doctors = doctorService.getDoctors();
+        return ETags.ok(etag, Map.of("doctors", doctors));
+    }
+
+    // Stream all doctors as NDJSON when the client sends Accept: application/x-ndjson
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamDoctors() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonStreamer.NDJSON)
+                .body(doctorService.streamDoctors());
     }
 
     // Add a new doctor (admin only)
@@ -106,12 +139,17 @@ public class DoctorController {
                 .body(Map.of("error", "Doctor not found with id"));
     }
 
-    // Filter doctors by name, time, and specialty
+    // Filter doctors by name, time, and specialty; conditional on the catalog version
     @GetMapping("/filter/{name}/{time}/{speciality}")
     public ResponseEntity<?> filter(@PathVariable String name,
             @PathVariable String time,
-            @PathVariable String speciality) {
+            @PathVariable String speciality,
+            WebRequest request) {
+        String etag = ETags.of(doctorService.catalogVersion());
+        ResponseEntity<?> notModified = ETags.notModified(request, etag);
+        if (notModified != null)
+            return notModified;
         Map<String, Object> filtered = service.filterDoctor(name, speciality, time);
-        return ResponseEntity.ok(filtered);
+        return ETags.ok(etag, filtered);
     }
 }
@@ -0,0 +1,45 @@
+package com.project.back_end.controllers;
+
+import java.security.SecureRandom;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETags built from in-process version counters, so a conditional GET
+ * is answered before any query or serialization runs. The counters restart
+ * with the process and differ between instances; a random per-process epoch
+ * keeps their tags from ever matching each other.
+ */
+final class ETags {
+
+    private static final String EPOCH = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + EPOCH + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    // 304 when the client's If-None-Match holds the tag, otherwise null
+    static ResponseEntity<?> notModified(WebRequest request, String etag) {
+        if (!request.checkNotModified(etag))
+            return null;
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    // 200 carrying the tag; no-cache makes clients revalidate instead of
+    // reusing the body unasked
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+}
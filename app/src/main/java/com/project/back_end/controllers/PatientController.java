@@ -9,10 +9,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.NdjsonStreamer;
+import com.project.back_end.services.PatientDashboardService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service_;
 
@@ -21,11 +25,14 @@ import com.project.back_end.services.Service_;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientDashboardService patientDashboardService;
     private final Service_ service;
 
     // Constructor injection
-    public PatientController(PatientService patientService, Service_ service) {
+    public PatientController(PatientService patientService, PatientDashboardService patientDashboardService,
+            Service_ service) {
         this.patientService = patientService;
+        this.patientDashboardService = patientDashboardService;
         this.service = service;
     }
 
@@ -40,6 +47,21 @@ public class PatientController {
         return ResponseEntity.ok(Map.of("patient", patient));
     }
 
+    // Patient, appointments and their prescriptions in one response
+    @GetMapping("/dashboard/{token}")
+    public ResponseEntity<?> getDashboard(@PathVariable String token) {
+        if (!service.validateToken(token, "patient")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        Map<String, Object> dashboard = patientDashboardService.getDashboard(token);
+        if (dashboard == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Unauthorized access"));
+        }
+        return ResponseEntity.ok(dashboard);
+    }
+
     // Create new patient (signup)
     @PostMapping()
     public ResponseEntity<?> createPatient(@RequestBody Patient patient) {
@@ -64,29 +86,63 @@ public class PatientController {
         return service.validatePatientLogin(login);
     }
 
-    // Get all appointments for a patient
+    // Get all appointments for a patient, or one keyset page when after/limit is given
     @GetMapping("/{id}/{token}")
     public ResponseEntity<?> getPatientAppointment(@PathVariable Long id,
-            @PathVariable String token) {
+            @PathVariable String token,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         if (!service.validateToken(token, "patient")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
     }
+    if (after != null || limit != null) {
+        return patientService.getPatientAppointment(id, token, after, limit);
+    }
     // Pass token along to the service
     return patientService.getPatientAppointment(id, token);
 }
 
 
+    // The patient's next scheduled appointment
+    @GetMapping("/{id}/next/{token}")
+    public ResponseEntity<?> getNextAppointment(@PathVariable Long id, @PathVariable String token) {
+        if (!service.validateToken(token, "patient")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        return patientService.getNextAppointment(id, token);
+    }
+
+    // Stream all appointments for a patient as NDJSON (Accept: application/x-ndjson)
+    @GetMapping(value = "/{id}/{token}", produces = "application/x-ndjson")
+    public ResponseEntity<?> streamPatientAppointment(@PathVariable Long id,
+            @PathVariable String token) {
+        if (!service.validateToken(token, "patient")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        StreamingResponseBody body = patientService.streamPatientAppointments(id, token);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(NdjsonStreamer.NDJSON)
+                .body(body);
+    }
+
     // Filter patient appointments based on condition and doctor name
     @GetMapping("/filter/{condition}/{name}/{token}")
     public ResponseEntity<?> filterPatientAppointment(@PathVariable String condition,
             @PathVariable String name,
-            @PathVariable String token) {
+            @PathVariable String token,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         if (!service.validateToken(token, "patient")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired token"));
         }
-        ResponseEntity<Map<String, Object>> filteredAppointments = service.filterPatient(condition, name, token);
+        ResponseEntity<Map<String, Object>> filteredAppointments = service.filterPatient(condition, name, token,
+                after, limit);
         return filteredAppointments;
     }
 }
@@ -1,30 +1,34 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.PrescriptionDTO;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Service_;
-import com.project.back_end.services.AppointmentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("${api.path}prescription")
 public class PrescriptionController {
 
+    // Appointment ids accepted by one bulk lookup, a few days of a doctor's schedule
+    private static final int MAX_BULK_IDS = 500;
+
     private final PrescriptionService prescriptionService;
     private final Service_ service;
-    private final AppointmentService appointmentService;
 
     // Constructor injection
     public PrescriptionController(PrescriptionService prescriptionService,
-            Service_ service,
-            AppointmentService appointmentService) {
+            Service_ service) {
         this.prescriptionService = prescriptionService;
         this.service = service;
-        this.appointmentService = appointmentService;
     }
 
     // Save a prescription
@@ -36,13 +40,16 @@ public class PrescriptionController {
                     .body(Map.of("error", "Invalid or expired token"));
         }
 
-        boolean saved = prescriptionService.savePrescription(prescription);
-        if (saved) {
-            // Optionally update appointment status
-            appointmentService.updateAppointmentStatus(prescription.getAppointmentId(), "prescribed");
+        PrescriptionService.Save saved = prescriptionService.savePrescription(prescription);
+        if (saved == PrescriptionService.Save.SAVED) {
+            // The appointment is marked prescribed in the background
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of("message", "Prescription saved successfully"));
         }
+        if (saved == PrescriptionService.Save.DUPLICATE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Prescription already exists for this appointment"));
+        }
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Could not save prescription"));
     }
@@ -58,9 +65,51 @@ public class PrescriptionController {
 
         Prescription prescription = prescriptionService.getPrescription(appointmentId);
         if (prescription != null) {
-            return ResponseEntity.ok(Map.of("prescription", prescription));
+            return ResponseEntity.ok(Map.of("prescription", new PrescriptionDTO(prescription)));
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", "No prescription found for this appointment"));
     }
+
+    // Get the prescriptions of many appointments at once, keyed by appointment ID;
+    // view=exists returns only whether each appointment has one
+    @GetMapping("/bulk/{token}")
+    public ResponseEntity<?> getPrescriptions(@PathVariable String token,
+            @RequestParam List<Long> appointmentIds,
+            @RequestParam(defaultValue = "full") String view) {
+        if (!service.validateToken(token, "doctor")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        Set<Long> ids = new LinkedHashSet<>(appointmentIds);
+        if (ids.size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_BULK_IDS + " appointment ids per request"));
+        }
+
+        Map<Long, ?> result;
+        String key;
+        if ("exists".equalsIgnoreCase(view)) {
+            result = prescriptionService.getPrescribed(ids);
+            key = "prescribed";
+        } else if ("full".equalsIgnoreCase(view)) {
+            Map<Long, Prescription> prescriptions = prescriptionService.getPrescriptions(ids);
+            result = prescriptions != null ? responses(prescriptions) : null;
+            key = "prescriptions";
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "view must be full or exists"));
+        }
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not fetch prescriptions"));
+        }
+        return ResponseEntity.ok(Map.of(key, result));
+    }
+
+    private static Map<Long, PrescriptionDTO> responses(Map<Long, Prescription> prescriptions) {
+        Map<Long, PrescriptionDTO> responses = new LinkedHashMap<>();
+        prescriptions.forEach((appointmentId, prescription) -> responses.put(appointmentId,
+                new PrescriptionDTO(prescription)));
+        return responses;
+    }
 }
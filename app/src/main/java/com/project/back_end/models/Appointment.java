@@ -4,8 +4,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
@@ -13,10 +17,24 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+// One appointment per doctor per slot; the booking engine relies on this as its backstop.
+// A patient's appointments in a time range are one range scan of idx_appointment_patient_time.
+@Table(uniqueConstraints = @UniqueConstraint(name = Appointment.SLOT_CONSTRAINT,
+    columnNames = { "doctor_id", "appointment_time" }),
+    indexes = @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time"))
 public class Appointment {
 
+  // The unique (doctor_id, appointment_time) constraint
+  public static final String SLOT_CONSTRAINT = "uk_appointment_doctor_time";
+
+  // Ids handed out per round trip to the id sequence
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  // Sequence ids (a table on MySQL) instead of IDENTITY so inserts can be JDBC-batched
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+  @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   @ManyToOne
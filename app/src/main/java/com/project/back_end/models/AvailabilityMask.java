@@ -0,0 +1,61 @@
+package com.project.back_end.models;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * A doctor's offered times as a 48-bit mask of half-hour slots, bit n being
+ * the slot that starts n * 30 minutes after midnight. Stored next to the
+ * doctor row so time filters run as bitwise predicates in SQL.
+ */
+public final class AvailabilityMask {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    public static final long AM = (1L << (SLOTS_PER_DAY / 2)) - 1;
+    public static final long PM = ((1L << SLOTS_PER_DAY) - 1) & ~AM;
+
+    private AvailabilityMask() {
+    }
+
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    // Whether the time is exactly the start of a slot, e.g. 09:00 but not 09:15
+    public static boolean isSlotStart(LocalTime time) {
+        return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    // -1 for labels that do not start with a time
+    public static int slotOf(String label) {
+        try {
+            return slotOf(LocalTime.parse(label.split("-")[0].trim()));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    public static long of(List<String> labels) {
+        long mask = 0;
+        if (labels == null)
+            return mask;
+        for (String label : labels) {
+            int slot = slotOf(label);
+            if (slot >= 0)
+                mask |= 1L << slot;
+        }
+        return mask;
+    }
+
+    // "AM", "PM" or a time of day such as "14:30"; anything else reads as PM,
+    // as the string comparison this replaces did
+    public static long forFilter(String amOrPmOrTime) {
+        if (amOrPmOrTime.equalsIgnoreCase("AM"))
+            return AM;
+        int slot = slotOf(amOrPmOrTime);
+        return slot >= 0 ? 1L << slot : PM;
+    }
+}
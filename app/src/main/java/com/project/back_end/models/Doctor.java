@@ -1,11 +1,15 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.BatchSize;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -40,9 +44,16 @@ public class Doctor {
     @Pattern(regexp = "\\d{10}", message = "Phone number must be 10 digits")
     private String phone;
 
+    // Lazy loads of this collection (pages, streams, appointments' doctors)
+    // are batched instead of issued one doctor at a time
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> availableTimes;
 
+    // Derived from availableTimes; see AvailabilityMask
+    @JsonIgnore
+    private Long availabilityMask;
+
     // No-argument constructor required by JPA
     public Doctor() {
     }
@@ -56,6 +67,7 @@ public class Doctor {
         this.password = password;
         this.phone = phone;
         this.availableTimes = availableTimes;
+        this.availabilityMask = AvailabilityMask.of(availableTimes);
     }
 
     // Getters and Setters
@@ -113,5 +125,17 @@ public class Doctor {
 
     public void setAvailableTimes(List<String> availableTimes) {
         this.availableTimes = availableTimes;
+        this.availabilityMask = AvailabilityMask.of(availableTimes);
+    }
+
+    public Long getAvailabilityMask() {
+        return availabilityMask;
+    }
+
+    // Catches in-place edits of the availableTimes list
+    @PrePersist
+    @PreUpdate
+    void syncAvailabilityMask() {
+        this.availabilityMask = AvailabilityMask.of(availableTimes);
     }
 }
@@ -1,6 +1,9 @@
 package com.project.back_end.models;
 
+import java.time.Instant;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -15,7 +18,9 @@ public class Prescription {
   @Size(min = 3, max = 100, message = "Patient name must be between 3 and 100 characters")
   private String patientName;
 
+  // One prescription per appointment; created at startup by MongoIndexes
   @NotNull(message = "Appointment ID cannot be null")
+  @Indexed(unique = true)
   private Long appointmentId;
 
   @NotNull(message = "Medication cannot be null")
@@ -29,6 +34,11 @@ public class Prescription {
   @Size(max = 200, message = "Doctor notes cannot exceed 200 characters")
   private String doctorNotes;
 
+  // Set when saved, removed once the appointment is marked prescribed
+  // (AppointmentStatusOutbox); the sparse index holds only pending ones
+  @Indexed(sparse = true)
+  private Instant statusPendingSince;
+
   // No-argument constructor
   public Prescription() {
   }
@@ -90,4 +100,12 @@ public class Prescription {
   public void setDoctorNotes(String doctorNotes) {
     this.doctorNotes = doctorNotes;
   }
+
+  public Instant getStatusPendingSince() {
+    return statusPendingSince;
+  }
+
+  public void setStatusPendingSince(Instant statusPendingSince) {
+    this.statusPendingSince = statusPendingSince;
+  }
 }
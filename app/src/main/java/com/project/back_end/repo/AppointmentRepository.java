@@ -1,16 +1,25 @@
 package com.project.back_end.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
@@ -64,6 +73,107 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
    void updateStatus(int status, long id);
 
-   
-}
+   // 9. Keyset page of a patient's appointments ordered by (appointmentTime, id),
+   // optionally narrowed by doctor name and an open time window (from, to)
+   @Query(APPOINTMENT_DTOS +
+         "WHERE p.id = :patientId " +
+         "AND (:doctorName IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))) " +
+         "AND (:from IS NULL OR a.appointmentTime > :from) " +
+         "AND (:to IS NULL OR a.appointmentTime < :to) " +
+         "AND (:afterTime IS NULL OR a.appointmentTime > :afterTime " +
+         "OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+         "ORDER BY a.appointmentTime ASC, a.id ASC")
+   List<AppointmentDTO> findPatientPage(Long patientId, String doctorName, LocalDateTime from, LocalDateTime to,
+         LocalDateTime afterTime, Long afterId, Limit limit);
+
+   // 10. Stream a patient's full history in time order; rows arrive in fetch-size chunks
+   @QueryHints({
+         @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+         @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+   @Query(APPOINTMENT_DTOS +
+         "WHERE p.id = :patientId " +
+         "ORDER BY a.appointmentTime ASC, a.id ASC")
+   Stream<AppointmentDTO> streamByPatientId(Long patientId);
+
+   // 11. Move many appointments forward to a status in one statement; rows
+   // already at or past it are left alone
+   @Modifying
+   @Transactional
+   @Query("UPDATE Appointment a SET a.status = :status WHERE a.id IN :ids AND a.status < :status")
+   int advanceStatus(int status, Collection<Long> ids);
 
+   // 12. Set the status of a chunk of appointments; with a doctorId only that
+   // doctor's appointments are touched. Returns the rows actually changed.
+   @Modifying
+   @Transactional
+   @Query("UPDATE Appointment a SET a.status = :status " +
+         "WHERE a.id IN :ids AND a.status <> :status " +
+         "AND (:doctorId IS NULL OR a.doctor.id = :doctorId)")
+   int updateStatusIn(int status, Collection<Long> ids, Long doctorId);
+
+   // 13. Next chunk of a doctor's appointments in [from, to) that are in a
+   // status, in id order after afterId
+   @Query("SELECT a.id FROM Appointment a " +
+         "WHERE a.doctor.id = :doctorId " +
+         "AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+         "AND a.status = :status AND a.id > :afterId " +
+         "ORDER BY a.id ASC")
+   List<Long> findIdsByDoctorAndStatus(Long doctorId, LocalDateTime from, LocalDateTime to, int status,
+         long afterId, Limit limit);
+
+   // 14. Move a chunk of appointments from one status to another; rows that
+   // left currentStatus in the meantime are skipped
+   @Modifying
+   @Transactional
+   @Query("UPDATE Appointment a SET a.status = :status WHERE a.id IN :ids AND a.status = :currentStatus")
+   int updateStatusFrom(int status, int currentStatus, Collection<Long> ids);
+
+   // 15. A doctor's appointments in [start, end), in time order
+   @Query(APPOINTMENT_DTOS +
+         "WHERE d.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+         "ORDER BY a.appointmentTime ASC, a.id ASC")
+   List<AppointmentDTO> findScheduleByDoctorId(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+   // 16. All of a patient's appointments, in time order
+   @Query(APPOINTMENT_DTOS +
+         "WHERE p.id = :patientId " +
+         "ORDER BY a.appointmentTime ASC, a.id ASC")
+   List<AppointmentDTO> findDtosByPatientId(Long patientId);
+
+   // 17. A patient's appointments with doctors whose name contains doctorName
+   @Query(APPOINTMENT_DTOS +
+         "WHERE p.id = :patientId " +
+         "AND LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
+         "ORDER BY a.appointmentTime ASC, a.id ASC")
+   List<AppointmentDTO> findDtosByDoctorNameAndPatientId(String doctorName, Long patientId);
+
+   // 18. A patient's appointments before a time, optionally only with doctors
+   // whose name contains doctorName and in one status; one range scan of the
+   // (patient_id, appointment_time) index, sorted and cut off by the database
+   @Query(APPOINTMENT_DTOS +
+         "WHERE a.patient.id = :patientId AND a.appointmentTime < :time " +
+         "AND (:doctorName IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))) " +
+         "AND (:status IS NULL OR a.status = :status)")
+   List<AppointmentDTO> findDtosBefore(Long patientId, LocalDateTime time, String doctorName, Integer status,
+         Sort sort, Limit limit);
+
+   // 19. Same, after a time
+   @Query(APPOINTMENT_DTOS +
+         "WHERE a.patient.id = :patientId AND a.appointmentTime > :time " +
+         "AND (:doctorName IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))) " +
+         "AND (:status IS NULL OR a.status = :status)")
+   List<AppointmentDTO> findDtosAfter(Long patientId, LocalDateTime time, String doctorName, Integer status,
+         Sort sort, Limit limit);
+
+   // 20. How many of a chunk of ids are existing appointments; with a doctorId
+   // only that doctor's are counted
+   @Query("SELECT COUNT(a) FROM Appointment a " +
+         "WHERE a.id IN :ids AND (:doctorId IS NULL OR a.doctor.id = :doctorId)")
+   int countIn(Collection<Long> ids, Long doctorId);
+
+   // AppointmentDTOs built by the query itself from only the columns they
+   // carry; no entities enter the persistence context, no passwords are read
+   String APPOINTMENT_DTOS = "SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+         "a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status) " +
+         "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+}
@@ -1,11 +1,18 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
@@ -24,8 +31,64 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
                   "AND LOWER(d.specialty) = LOWER(:specialty)")
       List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
 
-      // 4. Find doctors by specialty (case-insensitive)
+      // 4. Find doctors by specialty (case-insensitive), available times included
+      @EntityGraph(attributePaths = "availableTimes")
       List<Doctor> findBySpecialtyIgnoreCase(String specialty);
 
       boolean existsByEmail(String identifier);
+
+      // 5. Keyset page of doctors ordered by id
+      List<Doctor> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+      // 6. Stream the listing columns of every doctor for exports, one row per
+      // available time as in findDirectoryRows; rows arrive in fetch-size chunks
+      @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+      @Query(DIRECTORY_ROWS + "ORDER BY d.id")
+      Stream<DirectoryRow> streamDirectoryRows();
+
+      // 7. Id, name and specialty of every doctor, for the in-memory search index
+      @Query("SELECT d.id AS id, d.name AS name, d.specialty AS specialty FROM Doctor d")
+      List<SearchRow> findSearchRows();
+
+      // 8. Ids of doctors offering at least one slot of the mask, evaluated as a
+      // bitwise predicate on availability_mask (see AvailabilityMask). The cast
+      // types the parameter, which H2 cannot infer inside BITAND
+      @Query("SELECT d.id FROM Doctor d WHERE bitand(d.availabilityMask, cast(:mask AS Long)) <> 0 ORDER BY d.id")
+      List<Long> findIdsAvailableIn(long mask);
+
+      // 9. Doctors saved before availability_mask existed
+      List<Doctor> findByAvailabilityMaskIsNull();
+
+      // 10. Listing columns of every doctor, one row per available time (a doctor
+      // without times gets one row with a null time), ordered by id
+      @Query(DIRECTORY_ROWS + "ORDER BY d.id")
+      List<DirectoryRow> findDirectoryRows();
+
+      // 11. Same for one specialty (case-insensitive)
+      @Query(DIRECTORY_ROWS + "WHERE LOWER(d.specialty) = LOWER(:specialty) ORDER BY d.id")
+      List<DirectoryRow> findDirectoryRowsBySpecialty(String specialty);
+
+      // 12. Same for the given ids
+      @Query(DIRECTORY_ROWS + "WHERE d.id IN :ids ORDER BY d.id")
+      List<DirectoryRow> findDirectoryRowsByIdIn(Collection<Long> ids);
+
+      // 13. Ids of a keyset page of doctors, answered from the primary key
+      @Query("SELECT d.id FROM Doctor d WHERE d.id > :id ORDER BY d.id")
+      List<Long> findIdsGreaterThan(Long id, Limit limit);
+
+      String DIRECTORY_ROWS = "SELECT new com.project.back_end.repo.DoctorRepository$DirectoryRow(" +
+                  "d.id, d.name, d.specialty, d.email, d.phone, d.availabilityMask, t) " +
+                  "FROM Doctor d LEFT JOIN d.availableTimes t ";
+
+      record DirectoryRow(Long id, String name, String specialty, String email, String phone,
+                  Long availabilityMask, String availableTime) {
+      }
+
+      interface SearchRow {
+            Long getId();
+
+            String getName();
+
+            String getSpecialty();
+      }
 }
@@ -2,8 +2,10 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +13,20 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
 
     // Find all prescriptions associated with a specific appointment
     List<Prescription> findByAppointmentId(Long appointmentId);
+
+    // Find the prescriptions of many appointments in one $in query
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    // Whether the appointment already has a stored prescription, answered
+    // from the unique appointmentId index
+    boolean existsByAppointmentId(Long appointmentId);
+
+    // Which of the given appointments have a prescription. Only the indexed
+    // appointmentId is returned, so the index answers the query on its own
+    @Query(value = "{ 'appointmentId': { $in: ?0 } }", fields = "{ 'appointmentId': 1, '_id': 0 }")
+    List<PrescribedAppointment> findPrescribedAmong(Collection<Long> appointmentIds);
+
+    interface PrescribedAppointment {
+        Long getAppointmentId();
+    }
 }
@@ -2,14 +2,19 @@ package com.project.back_end.services;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
@@ -18,49 +23,78 @@ import com.project.back_end.repo.PatientRepository;
 @Service
 public class AppointmentService {
 
+    private static final List<String> STATUS_NAMES = List.of("scheduled", "prescribed", "completed", "canceled");
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final TokenService tokenService;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingEngine bookingEngine;
+    private final DoctorSchedules doctorSchedules;
+
+    // Rows per UPDATE in bulk status changes; each chunk commits on its own so
+    // row locks are held for one chunk at a time
+    @Value("${appointment.bulk-status.chunk-size:500}")
+    private int chunkSize;
+
+    // Outcome of a bulk status change: appointments selected, and how many of
+    // them actually changed status
+    public record StatusChange(int matched, int updated) {
+    }
 
     public AppointmentService(AppointmentRepository appointmentRepository,
             PatientRepository patientRepository,
             DoctorRepository doctorRepository,
-            TokenService tokenService) {
+            TokenService tokenService,
+            AvailabilityIndex availabilityIndex,
+            BookingEngine bookingEngine,
+            DoctorSchedules doctorSchedules) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.tokenService = tokenService;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingEngine = bookingEngine;
+        this.doctorSchedules = doctorSchedules;
     }
 
-    // Book a new appointment
-    @Transactional
-    public boolean bookAppointment(Appointment appointment) {
-        try {
-            appointmentRepository.save(appointment);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    // Book a new appointment; the engine reserves the slot and inserts in its own transaction
+    public BookingEngine.Result bookAppointment(Appointment appointment) {
+        BookingEngine.Result result = bookingEngine.book(appointment);
+        if (result == BookingEngine.Result.BOOKED)
+            evictSchedule(appointment);
+        return result;
     }
 
-    // Update an existing appointment
-    @Transactional
-    public boolean updateAppointment(Appointment appointment) {
-        Map<String, String> response = new HashMap<>();
-        Optional<Appointment> existing = appointmentRepository.findById(appointment.getId());
+    // Book several appointments at once with a single batched insert
+    public List<BookingEngine.Result> bookAppointments(List<Appointment> appointments) {
+        List<BookingEngine.Result> results = bookingEngine.bookAll(appointments);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == BookingEngine.Result.BOOKED)
+                evictSchedule(appointments.get(i));
+        }
+        return results;
+    }
 
-        if (existing.isPresent()) {
-            Appointment appt = existing.get();
-            appt.setAppointmentTime(appointment.getAppointmentTime());
-            appt.setStatus(appointment.getStatus());
-            appointmentRepository.save(appt);
-            response.put("message", "Appointment updated successfully");
-            return true;
-        } else {
-            response.put("error", "Appointment not found");
-            return false;
+    // Move an existing appointment to a new time and status. The engine claims
+    // the new slot and saves in its own transaction, then frees the old slot.
+    public BookingEngine.Result updateAppointment(Appointment appointment) {
+        Optional<Appointment> existing = appointment.getId() != null
+                ? appointmentRepository.findById(appointment.getId())
+                : Optional.empty();
+        if (existing.isEmpty())
+            return BookingEngine.Result.NOT_FOUND;
+
+        Appointment appt = existing.get();
+        LocalDate previousDay = appt.getAppointmentTime().toLocalDate();
+        BookingEngine.Result result = bookingEngine.reschedule(appt, appointment.getAppointmentTime(),
+                appointment.getStatus());
+        if (result == BookingEngine.Result.BOOKED) {
+            doctorSchedules.evictDay(appt.getDoctorId(), previousDay);
+            evictSchedule(appt);
         }
+        return result;
     }
 
     // Cancel an appointment
@@ -73,6 +107,8 @@ public class AppointmentService {
             Appointment appt = existing.get();
             // Optional: Validate user using tokenService
             appointmentRepository.delete(appt);
+            availabilityIndex.markFreed(appt.getDoctorId(), appt.getAppointmentTime());
+            evictSchedule(appt);
             response.put("message", "Appointment canceled successfully");
             return true;
         } else {
@@ -82,24 +118,15 @@ public class AppointmentService {
     }
 
     // Get appointments for a doctor on a specific date, optionally filtered by
-    // patient name
-    @Transactional(readOnly = true)
+    // patient name; served from the cached day schedule
     public Map<String, Object> getAppointments(String patientName, LocalDate date, String token) {
         Map<String, Object> response = new HashMap<>();
         // Extract doctorId from token
-        Long doctorId = tokenService.extractDoctorId(token); // assume this method exists
-
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.atTime(23, 59, 59);
-        List<Appointment> appointments;
+        Long doctorId = tokenService.extractDoctorId(token);
 
-        if (patientName == null || patientName.isEmpty()) {
-            appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end);
-        } else {
-            appointments = appointmentRepository
-                    .findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                            doctorId, patientName, start, end);
-        }
+        List<AppointmentDTO> appointments = doctorId != null
+                ? doctorSchedules.day(doctorId, date, patientName)
+                : List.of();
 
         response.put("appointments", appointments);
         return response;
@@ -109,25 +136,78 @@ public class AppointmentService {
     @Transactional
     public void changeStatus(int status, long id) {
         appointmentRepository.updateStatus(status, id);
+        doctorSchedules.evictAppointments(List.of(id));
+    }
+
+    // The doctor a token belongs to, or null
+    public Long doctorIdFor(String token) {
+        return tokenService.extractDoctorId(token);
+    }
+
+    // Set the status of many appointments, chunk by chunk. With a doctorId only
+    // that doctor's appointments are changed, and only they count as matched;
+    // ids of no appointment never do. Not @Transactional on purpose: a failed
+    // chunk leaves the earlier ones committed, and repeating the call finishes
+    // the rest.
+    public StatusChange changeStatus(int status, Collection<Long> ids, Long doctorId) {
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        int matched = 0;
+        int updated = 0;
+        for (int start = 0; start < distinct.size(); start += chunkSize) {
+            List<Long> chunk = distinct.subList(start, Math.min(start + chunkSize, distinct.size()));
+            matched += appointmentRepository.countIn(chunk, doctorId);
+            updated += appointmentRepository.updateStatusIn(status, chunk, doctorId);
+            doctorSchedules.evictAppointments(chunk);
+        }
+        return new StatusChange(matched, updated);
     }
 
-    public List<Map<String, Object>> getAppointment(String date, String patientName) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    // Move a doctor's appointments on days from..to (inclusive) from
+    // currentStatus to status, chunk by chunk in id order
+    public StatusChange changeStatus(int status, Long doctorId, LocalDate from, LocalDate to, int currentStatus) {
+        if (status == currentStatus)
+            return new StatusChange(0, 0);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        int matched = 0;
+        int updated = 0;
+        long afterId = 0;
+        List<Long> chunk;
+        do {
+            chunk = appointmentRepository.findIdsByDoctorAndStatus(doctorId, start, end, currentStatus, afterId,
+                    Limit.of(chunkSize));
+            if (chunk.isEmpty())
+                break;
+            matched += chunk.size();
+            updated += appointmentRepository.updateStatusFrom(status, currentStatus, chunk);
+            doctorSchedules.evictDays(doctorId, from, to);
+            afterId = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == chunkSize);
+        return new StatusChange(matched, updated);
     }
 
     @Transactional
     public void updateAppointmentStatus(Long appointmentId, String status) {
-    // Convert status string to int if your repository stores it as int
-    int statusCode = switch (status.toLowerCase()) {
-        case "prescribed" -> 1;
-        case "completed" -> 2;
-        case "canceled" -> 3;
-        default -> 0; // unknown / pending
-    };
-
-    appointmentRepository.updateStatus(statusCode, appointmentId);
-}
+        appointmentRepository.updateStatus(statusCode(status), appointmentId);
+        doctorSchedules.evictAppointments(List.of(appointmentId));
+    }
 
+    private void evictSchedule(Appointment appointment) {
+        if (appointment.getAppointmentTime() != null)
+            doctorSchedules.evictDay(appointment.getDoctorId(), appointment.getAppointmentTime().toLocalDate());
+    }
 
+    public static boolean isStatusName(String status) {
+        return status != null && STATUS_NAMES.contains(status.toLowerCase());
+    }
 
+    // Status names as stored in appointment.status
+    public static int statusCode(String status) {
+        return switch (status.toLowerCase()) {
+            case "prescribed" -> 1;
+            case "completed" -> 2;
+            case "canceled" -> 3;
+            default -> 0; // unknown / pending
+        };
+    }
 }
@@ -0,0 +1,179 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Marks appointments prescribed after their prescription is saved, off the
+ * request thread. A saved prescription carries statusPendingSince, written
+ * with the prescription in the same document, so the intent cannot be lost
+ * between the two stores. This worker picks up pending prescriptions oldest
+ * first, advances all their appointments with one UPDATE ... WHERE id IN,
+ * then clears the marker. A failed batch is retried with backoff; applying a
+ * batch twice is harmless because the UPDATE only moves statuses forward.
+ * With appointment.status-outbox.enabled=false no worker runs and pending
+ * transitions wait in Mongo for an instance that has it on.
+ */
+@Component
+public class AppointmentStatusOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusOutbox.class);
+
+    private static final String PENDING = "statusPendingSince";
+    private static final int PRESCRIBED = AppointmentService.statusCode("prescribed");
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorSchedules doctorSchedules;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${appointment.status-outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.status-outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${appointment.status-outbox.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${appointment.status-outbox.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    // Released on every save so a new prescription is relayed without
+    // waiting out the poll interval
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+    private Timer lag;
+    private Counter failures;
+
+    public AppointmentStatusOutbox(MongoTemplate mongoTemplate, AppointmentRepository appointmentRepository,
+            DoctorSchedules doctorSchedules, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorSchedules = doctorSchedules;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled)
+            return;
+        registerMeters();
+        running = true;
+        worker = Thread.ofPlatform().name("appointment-status-outbox").daemon().start(this::relayLoop);
+    }
+
+    void registerMeters() {
+        lag = Timer.builder("appointments.status.outbox.lag")
+                .description("Time from prescription save to the appointment being marked prescribed")
+                .register(meterRegistry);
+        failures = meterRegistry.counter("appointments.status.outbox.failures");
+        Gauge.builder("appointments.status.outbox.oldest", oldestPendingMillis, millis -> millis.get() / 1000.0)
+                .description("Age in seconds of the oldest transition still pending at the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void wake() {
+        if (wakeUp.availablePermits() == 0)
+            wakeUp.release();
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(pollInterval.toMillis());
+        }
+    }
+
+    // One batch: returns how many prescriptions were relayed
+    int relay() {
+        Query pending = Query.query(Criteria.where(PENDING).exists(true))
+                .with(Sort.by(PENDING))
+                .limit(batchSize);
+        pending.fields().include("appointmentId", PENDING);
+        List<Prescription> batch = mongoTemplate.find(pending, Prescription.class);
+        if (batch.isEmpty()) {
+            oldestPendingMillis.set(0);
+            return 0;
+        }
+        Instant now = Instant.now();
+        oldestPendingMillis.set(Duration.between(batch.get(0).getStatusPendingSince(), now).toMillis());
+
+        Set<Long> appointmentIds = new LinkedHashSet<>();
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Prescription prescription : batch) {
+            appointmentIds.add(prescription.getAppointmentId());
+            ids.add(prescription.getId());
+        }
+        appointmentRepository.advanceStatus(PRESCRIBED, appointmentIds);
+        doctorSchedules.evictAppointments(appointmentIds);
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), new Update().unset(PENDING),
+                Prescription.class);
+
+        Instant applied = Instant.now();
+        for (Prescription prescription : batch)
+            lag.record(Duration.between(prescription.getStatusPendingSince(), applied));
+        return batch.size();
+    }
+
+    private void relayLoop() {
+        long backoff = pollInterval.toMillis();
+        while (running) {
+            try {
+                // A full batch means more are waiting
+                if (relay() == batchSize)
+                    continue;
+                backoff = pollInterval.toMillis();
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Appointment status relay failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.AvailabilityMask;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Offered and booked slots per (doctorId, date), kept as two 48-bit masks of
+ * half-hour slots. Entries are built from the repositories on first access and
+ * then patched in place when appointments are booked, moved or canceled, so
+ * availability checks no longer touch the database. Each build or patch of a
+ * day gets a new version number.
+ */
+@Component
+public class AvailabilityIndex {
+
+    public static final int SLOT_MINUTES = AvailabilityMask.SLOT_MINUTES;
+
+    public enum SlotState {
+        UNKNOWN_DOCTOR, UNAVAILABLE, AVAILABLE
+    }
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${availability.index.max-entries:50000}")
+    private long maxEntries;
+
+    @Value("${availability.index.expire-after-access:1h}")
+    private Duration expireAfterAccess;
+
+    private LoadingCache<DoctorDay, DaySlots> days;
+
+    public AvailabilityIndex(DoctorRepository doctorRepository,
+            AppointmentRepository appointmentRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void init() {
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build(key -> readOnlyTx.execute(status -> load(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "availabilityIndex");
+    }
+
+    // Offered times for the day that are not booked, in the doctor's own format
+    public List<String> availableTimes(Long doctorId, LocalDate date) {
+        DaySlots slots = days.get(new DoctorDay(doctorId, date));
+        List<String> available = new ArrayList<>(slots.labels().size());
+        for (int i = 0; i < slots.labels().size(); i++) {
+            int slot = slots.labelSlots()[i];
+            if (slot < 0 || (slots.booked() & (1L << slot)) == 0)
+                available.add(slots.labels().get(i));
+        }
+        return available;
+    }
+
+    // Version of the day's availability; equal versions mean equal availableTimes
+    public long version(Long doctorId, LocalDate date) {
+        return days.get(new DoctorDay(doctorId, date)).version();
+    }
+
+    public SlotState check(Long doctorId, LocalDateTime appointmentTime) {
+        DaySlots slots = days.get(new DoctorDay(doctorId, appointmentTime.toLocalDate()));
+        if (!slots.doctorExists())
+            return SlotState.UNKNOWN_DOCTOR;
+        long bit = 1L << slotOf(appointmentTime.toLocalTime());
+        return (slots.offered() & bit) != 0 && (slots.booked() & bit) == 0
+                ? SlotState.AVAILABLE
+                : SlotState.UNAVAILABLE;
+    }
+
+    // Atomically claims a free offered slot. Concurrent callers for the same
+    // slot serialize on the day's map entry, so exactly one sees AVAILABLE.
+    public SlotState tryReserve(Long doctorId, LocalDateTime appointmentTime) {
+        DoctorDay key = new DoctorDay(doctorId, appointmentTime.toLocalDate());
+        long bit = 1L << slotOf(appointmentTime.toLocalTime());
+        SlotState[] outcome = new SlotState[1];
+        while (outcome[0] == null) {
+            if (!days.get(key).doctorExists())
+                return SlotState.UNKNOWN_DOCTOR;
+            // computeIfPresent skips the function if the day was evicted in between; load it again
+            days.asMap().computeIfPresent(key, (k, slots) -> {
+                if ((slots.offered() & bit) == 0 || (slots.booked() & bit) != 0) {
+                    outcome[0] = SlotState.UNAVAILABLE;
+                    return slots;
+                }
+                outcome[0] = SlotState.AVAILABLE;
+                return slots.withBooked(slots.booked() | bit);
+            });
+        }
+        return outcome[0];
+    }
+
+    // Undo a reservation whose insert did not go through
+    public void release(Long doctorId, LocalDateTime appointmentTime) {
+        patch(doctorId, appointmentTime, false);
+    }
+
+    // Forget one day so the next access rebuilds it from the database
+    public void evictDay(Long doctorId, LocalDate date) {
+        days.invalidate(new DoctorDay(doctorId, date));
+    }
+
+    public void markFreed(Long doctorId, LocalDateTime appointmentTime) {
+        AfterCommit.run(() -> patch(doctorId, appointmentTime, false));
+    }
+
+    // Drop every day of this doctor, e.g. after the offered times changed
+    public void evictDoctor(Long doctorId) {
+        if (doctorId == null)
+            return;
+        Runnable evict = () -> days.asMap().keySet().removeIf(key -> key.doctorId() == doctorId);
+        evict.run();
+        AfterCommit.run(evict);
+    }
+
+    public static int slotOf(LocalTime time) {
+        return AvailabilityMask.slotOf(time);
+    }
+
+    public static boolean isSlotStart(LocalDateTime appointmentTime) {
+        return AvailabilityMask.isSlotStart(appointmentTime.toLocalTime());
+    }
+
+    // "09:00" and "09:00-10:00" both map to the slot of their start time
+    public static int slotOf(String label) {
+        return AvailabilityMask.slotOf(label);
+    }
+
+    private void patch(Long doctorId, LocalDateTime appointmentTime, boolean booked) {
+        if (doctorId == null || appointmentTime == null)
+            return;
+        long bit = 1L << slotOf(appointmentTime.toLocalTime());
+        // Only patch days already in memory; absent days are rebuilt from the database
+        days.asMap().computeIfPresent(new DoctorDay(doctorId, appointmentTime.toLocalDate()),
+                (key, slots) -> slots.withBooked(booked ? slots.booked() | bit : slots.booked() & ~bit));
+    }
+
+    private DaySlots load(DoctorDay key) {
+        Doctor doctor = doctorRepository.findById(key.doctorId()).orElse(null);
+        if (doctor == null)
+            return DaySlots.NO_DOCTOR;
+
+        List<String> labels = doctor.getAvailableTimes() != null
+                ? List.copyOf(doctor.getAvailableTimes())
+                : List.of();
+        int[] labelSlots = new int[labels.size()];
+        long offered = 0;
+        for (int i = 0; i < labels.size(); i++) {
+            labelSlots[i] = slotOf(labels.get(i));
+            if (labelSlots[i] >= 0)
+                offered |= 1L << labelSlots[i];
+        }
+
+        long booked = 0;
+        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
+                key.doctorId(), key.date().atStartOfDay(), key.date().atTime(23, 59, 59));
+        for (Appointment appointment : appointments)
+            booked |= 1L << slotOf(appointment.getAppointmentTime().toLocalTime());
+
+        return new DaySlots(true, offered, booked, labels, labelSlots, VERSIONS.incrementAndGet());
+    }
+
+    private record DoctorDay(long doctorId, LocalDate date) {
+    }
+
+    private record DaySlots(boolean doctorExists, long offered, long booked, List<String> labels,
+            int[] labelSlots, long version) {
+
+        static final DaySlots NO_DOCTOR = new DaySlots(false, 0, 0, List.of(), new int[0], 0);
+
+        DaySlots withBooked(long booked) {
+            return new DaySlots(doctorExists, offered, booked, labels, labelSlots, VERSIONS.incrementAndGet());
+        }
+    }
+}
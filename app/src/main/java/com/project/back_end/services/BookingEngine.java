@@ -0,0 +1,184 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Books appointments without check-then-act races. The slot is claimed
+ * atomically in the AvailabilityIndex before the insert, so concurrent
+ * bookers of one slot are turned away in memory without waiting on a lock.
+ * The unique (doctor_id, appointment_time) constraint on the appointment table
+ * is the backstop when another instance got there first. Reschedules claim
+ * their new slot the same way. Only times that start a slot are accepted:
+ * the constraint is on the exact time, so 09:15 next to a 09:00 booking would
+ * pass it.
+ */
+@Service
+public class BookingEngine {
+
+    public enum Result {
+        BOOKED, CONFLICT, UNKNOWN_DOCTOR,
+        // Not at the start of a slot, or rejected by another constraint, e.g. a
+        // patient that does not exist
+        INVALID,
+        // Reschedule of an appointment that does not exist
+        NOT_FOUND,
+        FAILED
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final TransactionTemplate tx;
+    private final Counter booked;
+    private final Counter conflicts;
+
+    public BookingEngine(AppointmentRepository appointmentRepository,
+            AvailabilityIndex availabilityIndex,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.booked = meterRegistry.counter("appointments.booking", "result", "booked");
+        this.conflicts = meterRegistry.counter("appointments.booking", "result", "conflict");
+    }
+
+    public Result book(Appointment appointment) {
+        Long doctorId = appointment.getDoctorId();
+        LocalDateTime time = appointment.getAppointmentTime();
+
+        Result refused = reserve(doctorId, time);
+        if (refused != null)
+            return refused;
+        Result result = save(appointment, doctorId, time);
+        if (result == Result.BOOKED)
+            booked.increment();
+        return result;
+    }
+
+    // Move a stored appointment to time, with newStatus unless that is null. The new slot is claimed as for a booking and the old one freed
+    // once the move has committed; BOOKED means the appointment holds the slot.
+    public Result reschedule(Appointment appointment, LocalDateTime time, Integer newStatus) {
+        if (time == null || !AvailabilityIndex.isSlotStart(time))
+            return Result.INVALID;
+        Long doctorId = appointment.getDoctorId();
+        LocalDateTime previousTime = appointment.getAppointmentTime();
+        if (newStatus != null)
+            appointment.setStatus(newStatus);
+        if (time.equals(previousTime)) {
+            try {
+                tx.executeWithoutResult(status -> appointmentRepository.saveAndFlush(appointment));
+                return Result.BOOKED;
+            } catch (RuntimeException e) {
+                return Result.FAILED;
+            }
+        }
+
+        Result refused = reserve(doctorId, time);
+        if (refused != null)
+            return refused;
+        appointment.setAppointmentTime(time);
+        Result result = save(appointment, doctorId, time);
+        if (result == Result.BOOKED)
+            availabilityIndex.release(doctorId, previousTime);
+        return result;
+    }
+
+    // Null once the slot is claimed, otherwise why it was not
+    private Result reserve(Long doctorId, LocalDateTime time) {
+        if (time == null || !AvailabilityIndex.isSlotStart(time))
+            return Result.INVALID;
+        switch (availabilityIndex.tryReserve(doctorId, time)) {
+            case UNKNOWN_DOCTOR:
+                return Result.UNKNOWN_DOCTOR;
+            case UNAVAILABLE:
+                conflicts.increment();
+                return Result.CONFLICT;
+            default:
+                return null;
+        }
+    }
+
+    // Writes an appointment whose slot is reserved, releasing the reservation
+    // if the write does not go through
+    private Result save(Appointment appointment, Long doctorId, LocalDateTime time) {
+        try {
+            tx.executeWithoutResult(status -> appointmentRepository.saveAndFlush(appointment));
+            return Result.BOOKED;
+        } catch (DataIntegrityViolationException e) {
+            if (!isSlotTaken(e)) {
+                // A bad reference; the slot is still free
+                availabilityIndex.release(doctorId, time);
+                return Result.INVALID;
+            }
+            // Lost to another instance; rebuild the day from the table
+            availabilityIndex.evictDay(doctorId, time.toLocalDate());
+            conflicts.increment();
+            return Result.CONFLICT;
+        } catch (RuntimeException e) {
+            availabilityIndex.release(doctorId, time);
+            return Result.FAILED;
+        }
+    }
+
+    // Whether the violation is the unique (doctor_id, appointment_time)
+    // constraint, by the name Hibernate extracted or, failing that, the message
+    static boolean isSlotTaken(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null)
+                return violation.getConstraintName().toLowerCase().contains(Appointment.SLOT_CONSTRAINT);
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase().contains(Appointment.SLOT_CONSTRAINT))
+                return true;
+        }
+        return false;
+    }
+
+    // Reserve every slot in one pass, then insert all winners in one
+    // transaction so Hibernate can send them as a JDBC batch. Results line up
+    // with the input list.
+    public List<Result> bookAll(List<Appointment> appointments) {
+        List<Result> results = new ArrayList<>(appointments.size());
+        List<Appointment> reserved = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            Result refused = reserve(appointment.getDoctorId(), appointment.getAppointmentTime());
+            if (refused == null)
+                reserved.add(appointment);
+            results.add(refused != null ? refused : Result.BOOKED);
+        }
+        if (reserved.isEmpty())
+            return results;
+
+        try {
+            tx.executeWithoutResult(status -> {
+                appointmentRepository.saveAll(reserved);
+                appointmentRepository.flush();
+            });
+            booked.increment(reserved.size());
+        } catch (RuntimeException e) {
+            // The batch rolled back as a whole; settle the reserved items one by one
+            for (Appointment appointment : reserved)
+                availabilityIndex.release(appointment.getDoctorId(), appointment.getAppointmentTime());
+            for (int i = 0; i < appointments.size(); i++) {
+                if (results.get(i) == Result.BOOKED) {
+                    Appointment appointment = appointments.get(i);
+                    appointment.setId(null);
+                    results.set(i, book(appointment));
+                }
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.back_end.DTO.DoctorSummary;
+import com.project.back_end.repo.DoctorRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of the doctor directory, one segment per specialty plus
+ * one for the whole directory. Segments hold DoctorSummary projections (no
+ * entities, no passwords) with their available times, sorted by id. DoctorService invalidates the
+ * segments a write touches, now and again once the write commits; the size
+ * bound counts doctors, not segments. The version moves on every invalidation
+ * and eviction, so an unchanged version means unchanged listings.
+ */
+@Component
+public class DoctorCatalog {
+
+    private static final String ALL = "*";
+
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${doctor.catalog.max-doctors:200000}")
+    private long maxDoctors;
+
+    @Value("${doctor.catalog.expire-after-write:30m}")
+    private Duration expireAfterWrite;
+
+    private final AtomicLong version = new AtomicLong();
+    private LoadingCache<String, List<DoctorSummary>> segments;
+
+    public DoctorCatalog(DoctorRepository doctorRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void init() {
+        this.segments = Caffeine.newBuilder()
+                .maximumWeight(maxDoctors)
+                .<String, List<DoctorSummary>>weigher((key, doctors) -> doctors.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                // Runs on the evicting thread, unlike a removal listener
+                .<String, List<DoctorSummary>>evictionListener((key, doctors, cause) -> version.incrementAndGet())
+                .recordStats()
+                .build(key -> readOnlyTx.execute(status -> load(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, segments, "doctorCatalog");
+    }
+
+    public List<DoctorSummary> all() {
+        return segments.get(ALL);
+    }
+
+    public List<DoctorSummary> bySpecialty(String specialty) {
+        return segments.get(key(specialty));
+    }
+
+    // Doctors with the given ids, in id order; ids that are gone are skipped
+    public List<DoctorSummary> byIds(List<Long> ids) {
+        List<DoctorSummary> directory = all();
+        List<DoctorSummary> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DoctorSummary doctor = find(directory, id);
+            if (doctor != null)
+                found.add(doctor);
+        }
+        return found;
+    }
+
+    // Drops the doctor's specialty segment and the whole-directory segment
+    public void invalidate(String specialty) {
+        List<String> keys = specialty != null ? List.of(ALL, key(specialty)) : List.of(ALL);
+        Runnable invalidate = () -> {
+            segments.invalidateAll(keys);
+            version.incrementAndGet();
+        };
+        invalidate.run();
+        AfterCommit.run(invalidate);
+    }
+
+    public void invalidateAll() {
+        segments.invalidateAll();
+        version.incrementAndGet();
+    }
+
+    public void invalidateSegment(String specialty) {
+        segments.invalidate(key(specialty));
+        version.incrementAndGet();
+    }
+
+    // Changes whenever a doctor listing may have changed; read it before the
+    // listing so a write in between shows up as a newer version next time
+    public long version() {
+        return version.get();
+    }
+
+    // Cached doctor count per segment, for the actuator endpoint
+    public Map<String, Integer> segmentSizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        segments.asMap().forEach((key, doctors) -> sizes.put(key, doctors.size()));
+        return sizes;
+    }
+
+    public CacheStats stats() {
+        return segments.stats();
+    }
+
+    private List<DoctorSummary> load(String key) {
+        // Both queries join the available times in, so a segment is one SELECT
+        return Collections.unmodifiableList(DoctorSummary.fromRows(ALL.equals(key)
+                ? doctorRepository.findDirectoryRows()
+                : doctorRepository.findDirectoryRowsBySpecialty(key)));
+    }
+
+    private static String key(String specialty) {
+        return specialty.toLowerCase(Locale.ROOT);
+    }
+
+    // Binary search of a segment, which is sorted by id
+    private static DoctorSummary find(List<DoctorSummary> doctors, long id) {
+        int low = 0;
+        int high = doctors.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = doctors.get(mid).id();
+            if (midId < id)
+                low = mid + 1;
+            else if (midId > id)
+                high = mid - 1;
+            else
+                return doctors.get(mid);
+        }
+        return null;
+    }
+}
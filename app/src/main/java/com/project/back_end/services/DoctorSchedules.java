@@ -0,0 +1,167 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.repo.AppointmentRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of a doctor's appointments per (doctorId, date), held as
+ * detached AppointmentDTOs in time order. The patient-name filter of the
+ * doctor dashboard runs against the cached day, so refreshes no longer run
+ * the appointment/doctor/patient join. Every write that touches a day evicts
+ * it, now and again once the write commits; the size bound evicts the least
+ * recently used days first. Writes that only know appointment ids find their
+ * day through an index of the appointments in every cached day.
+ */
+@Component
+public class DoctorSchedules {
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${doctor.schedule.max-days:10000}")
+    private long maxDays;
+
+    @Value("${doctor.schedule.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private LoadingCache<DoctorDay, Day> days;
+    // Appointment id -> the cached day holding it
+    private final Map<Long, Day> dayOf = new ConcurrentHashMap<>();
+
+    public DoctorSchedules(AppointmentRepository appointmentRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void init() {
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxDays)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .removalListener((DoctorDay key, Day day, RemovalCause cause) -> unindex(day))
+                .build(key -> readOnlyTx.execute(status -> load(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "doctorSchedules");
+    }
+
+    // The doctor's appointments on the date, narrowed to patients whose name
+    // contains patientName (ignoring case) unless it is null or blank
+    public List<AppointmentDTO> day(Long doctorId, LocalDate date, String patientName) {
+        List<AppointmentDTO> schedule = days.get(new DoctorDay(doctorId, date)).appointments();
+        if (patientName == null || patientName.isBlank())
+            return schedule;
+        String needle = patientName.toLowerCase(Locale.ROOT);
+        List<AppointmentDTO> matching = new ArrayList<>();
+        for (AppointmentDTO appointment : schedule) {
+            String name = appointment.getPatientName();
+            if (name != null && name.toLowerCase(Locale.ROOT).contains(needle))
+                matching.add(appointment);
+        }
+        return matching;
+    }
+
+    public void evictDay(Long doctorId, LocalDate date) {
+        if (doctorId == null || date == null)
+            return;
+        DoctorDay key = new DoctorDay(doctorId, date);
+        days.invalidate(key);
+        AfterCommit.run(() -> days.invalidate(key));
+    }
+
+    // Days from..to inclusive
+    public void evictDays(Long doctorId, LocalDate from, LocalDate to) {
+        if (doctorId == null)
+            return;
+        Runnable evict = () -> days.asMap().keySet().removeIf(key -> key.doctorId() == doctorId
+                && !key.date().isBefore(from) && !key.date().isAfter(to));
+        evict.run();
+        AfterCommit.run(evict);
+    }
+
+    // Every cached day holding one of these appointments
+    public void evictAppointments(Collection<Long> appointmentIds) {
+        List<Long> ids = List.copyOf(appointmentIds);
+        Runnable evict = () -> {
+            for (Long id : ids) {
+                Day day = dayOf.get(id);
+                if (day != null)
+                    days.invalidate(day.key());
+            }
+        };
+        evict.run();
+        AfterCommit.run(evict);
+    }
+
+    public void evictDoctor(Long doctorId) {
+        if (doctorId == null)
+            return;
+        Runnable evict = () -> days.asMap().keySet().removeIf(key -> key.doctorId() == doctorId);
+        evict.run();
+        AfterCommit.run(evict);
+    }
+
+    private Day load(DoctorDay key) {
+        Day day = new Day(key, appointmentRepository.findScheduleByDoctorId(key.doctorId(),
+                key.date().atStartOfDay(), key.date().plusDays(1).atStartOfDay()));
+        for (AppointmentDTO appointment : day.appointments())
+            dayOf.put(appointment.getId(), day);
+        return day;
+    }
+
+    // Only drops entries still pointing at this load of the day, so a reload
+    // that raced the removal keeps its own
+    private void unindex(Day day) {
+        if (day == null)
+            return;
+        for (AppointmentDTO appointment : day.appointments())
+            dayOf.remove(appointment.getId(), day);
+    }
+
+    private record DoctorDay(long doctorId, LocalDate date) {
+    }
+
+    // One load of a day. Compared by identity, unlike the record key.
+    private static final class Day {
+        private final DoctorDay key;
+        private final List<AppointmentDTO> appointments;
+
+        Day(DoctorDay key, List<AppointmentDTO> appointments) {
+            this.key = key;
+            this.appointments = appointments;
+        }
+
+        DoctorDay key() {
+            return key;
+        }
+
+        List<AppointmentDTO> appointments() {
+            return appointments;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+
+/**
+ * In-process trigram index over doctor names plus an exact index over
+ * specialties, both case-insensitive. Substring searches AND the posting
+ * bitsets of the query's trigrams and confirm the survivors with contains(),
+ * replacing LOWER(name) LIKE '%x%' scans of the doctor table. Postings are
+ * bitsets over doctor ids, which are dense auto-increment values.
+ * Built from an id/name/specialty projection on first use and kept current
+ * by DoctorService after each committed save, update or delete.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, BitSet> trigrams = new HashMap<>();
+    private final Map<String, BitSet> specialties = new HashMap<>();
+    private final BitSet all = new BitSet();
+    private volatile boolean built;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository, PlatformTransactionManager transactionManager) {
+        this.doctorRepository = doctorRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Ids of doctors whose name contains {@code name} and whose specialty
+     * equals {@code specialty}, ignoring case, in ascending order. Either
+     * argument may be null to skip that criterion.
+     */
+    public List<Long> search(String name, String specialty) {
+        ensureBuilt();
+        String needle = name != null ? normalize(name) : null;
+        String specialtyKey = specialty != null ? normalize(specialty) : null;
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) all.clone();
+            if (specialtyKey != null)
+                candidates.and(specialties.getOrDefault(specialtyKey, EMPTY));
+            if (needle != null) {
+                for (String gram : grams(needle)) {
+                    if (candidates.isEmpty())
+                        break;
+                    candidates.and(trigrams.getOrDefault(gram, EMPTY));
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(candidates.cardinality());
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                // Trigrams can match out of order ("abcxbcd" for "abcd"); confirm
+                if (needle != null && !entries.get(id).name().contains(needle))
+                    continue;
+                ids.add((long) id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onSaved(Doctor doctor) {
+        if (doctor.getId() == null)
+            return;
+        int id = Math.toIntExact(doctor.getId());
+        String name = doctor.getName();
+        String specialty = doctor.getSpecialty();
+        AfterCommit.run(() -> update(() -> {
+            remove(id);
+            add(id, name, specialty);
+        }));
+    }
+
+    public void onDeleted(Long id) {
+        int key = Math.toIntExact(id);
+        AfterCommit.run(() -> update(() -> remove(key)));
+    }
+
+    // Checked under the write lock so a change is never lost to a build in progress
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (built)
+                change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (built)
+                return;
+            readOnlyTx.executeWithoutResult(status -> doctorRepository.findSearchRows()
+                    .forEach(row -> add(Math.toIntExact(row.getId()), row.getName(), row.getSpecialty())));
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(int id, String name, String specialty) {
+        Entry entry = new Entry(name != null ? normalize(name) : "", specialty != null ? normalize(specialty) : "");
+        entries.put(id, entry);
+        all.set(id);
+        for (String gram : grams(entry.name()))
+            trigrams.computeIfAbsent(gram, k -> new BitSet()).set(id);
+        specialties.computeIfAbsent(entry.specialty(), k -> new BitSet()).set(id);
+    }
+
+    private void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null)
+            return;
+        all.clear(id);
+        for (String gram : grams(entry.name()))
+            removePosting(trigrams, gram, id);
+        removePosting(specialties, entry.specialty(), id);
+    }
+
+    private static void removePosting(Map<String, BitSet> postings, String key, int id) {
+        BitSet posting = postings.get(key);
+        if (posting == null)
+            return;
+        posting.clear(id);
+        if (posting.isEmpty())
+            postings.remove(key);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++)
+            grams.add(text.substring(i, i + 3));
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String name, String specialty) {
+    }
+}
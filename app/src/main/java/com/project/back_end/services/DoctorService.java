@@ -1,20 +1,21 @@
 package com.project.back_end.services;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
-import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.PageCursor;
+import com.project.back_end.models.AvailabilityMask;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
@@ -25,33 +26,41 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final AvailabilityIndex availabilityIndex;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final DoctorSearchIndex searchIndex;
+    private final DoctorCatalog doctorCatalog;
+    private final DoctorSchedules doctorSchedules;
 
     public DoctorService(DoctorRepository doctorRepository,
             AppointmentRepository appointmentRepository,
-            TokenService tokenService) {
+            TokenService tokenService,
+            AvailabilityIndex availabilityIndex,
+            NdjsonStreamer ndjsonStreamer,
+            DoctorSearchIndex searchIndex,
+            DoctorCatalog doctorCatalog,
+            DoctorSchedules doctorSchedules) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.availabilityIndex = availabilityIndex;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.searchIndex = searchIndex;
+        this.doctorCatalog = doctorCatalog;
+        this.doctorSchedules = doctorSchedules;
     }
 
-    @Transactional
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.atTime(23, 59, 59);
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start,
-                end);
-
-        Set<String> bookedSlots = appointments.stream()
-                .map(a -> a.getAppointmentTime().toLocalTime().toString())
-                .collect(Collectors.toSet());
+        return availabilityIndex.availableTimes(doctorId, date);
+    }
 
-        // Assuming doctor has standard available slots
-        List<String> allSlots = doctorRepository.findById(doctorId)
-                .map(Doctor::getAvailableTimes)
-                .orElse(Collections.emptyList());
+    public long availabilityVersion(Long doctorId, LocalDate date) {
+        return availabilityIndex.version(doctorId, date);
+    }
 
-        allSlots.removeAll(bookedSlots);
-        return allSlots;
+    // Covers every listing built from the doctor table: all, pages and filters
+    public long catalogVersion() {
+        return doctorCatalog.version();
     }
 
     @Transactional
@@ -60,6 +69,9 @@ public class DoctorService {
             return false;
         try {
             doctorRepository.save(doctor);
+            availabilityIndex.evictDoctor(doctor.getId());
+            searchIndex.onSaved(doctor);
+            doctorCatalog.invalidate(doctor.getSpecialty());
             return true;
         } catch (Exception e) {
             return false;
@@ -68,28 +80,69 @@ public class DoctorService {
 
     @Transactional
     public boolean updateDoctor(Doctor doctor) {
-        if (!doctorRepository.existsById(doctor.getId()))
+        Doctor existing = doctorRepository.findById(doctor.getId()).orElse(null);
+        if (existing == null)
             return false;
+        String previousEmail = existing.getEmail();
+        String previousSpecialty = existing.getSpecialty();
         try {
             doctorRepository.save(doctor);
+            availabilityIndex.evictDoctor(doctor.getId());
+            // Cached schedules carry the doctor's name
+            doctorSchedules.evictDoctor(doctor.getId());
+            searchIndex.onSaved(doctor);
+            doctorCatalog.invalidate(previousSpecialty);
+            doctorCatalog.invalidate(doctor.getSpecialty());
+            if (previousEmail != null && !previousEmail.equals(doctor.getEmail()))
+                tokenService.evictPrincipal(previousEmail);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    public List<DoctorSummary> getDoctors() {
+        return doctorCatalog.all();
+    }
+
+    // Whole doctor directory as NDJSON, one DoctorSummary per line as in the
+    // JSON listing, folded from the directory rows as they stream in
+    public StreamingResponseBody streamDoctors() {
+        return ndjsonStreamer.stream(() -> DoctorSummary.fromRows(doctorRepository.streamDirectoryRows()),
+                doctor -> doctor);
+    }
+
+    // Keyset page of the doctor directory ordered by id: the page's ids from
+    // the primary key, then their listing columns and times in one query
     @Transactional(readOnly = true)
-    public List<Doctor> getDoctors() {
-        return doctorRepository.findAll();
+    public Map<String, Object> getDoctorPage(String after, Integer limit) {
+        int pageSize = PageCursor.limit(limit);
+        List<Long> ids = doctorRepository.findIdsGreaterThan(PageCursor.doctorKey(after), Limit.of(pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        List<DoctorSummary> page = pageIds.isEmpty()
+                ? List.of()
+                : DoctorSummary.fromRows(doctorRepository.findDirectoryRowsByIdIn(pageIds));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("doctors", page);
+        response.put("nextCursor", hasMore ? PageCursor.ofDoctor(pageIds.get(pageIds.size() - 1)) : null);
+        return response;
     }
 
     @Transactional
     public boolean deleteDoctor(long id) {
-        if (!doctorRepository.existsById(id))
+        Doctor existing = doctorRepository.findById(id).orElse(null);
+        if (existing == null)
             return false;
         try {
             appointmentRepository.deleteAllByDoctor_Id(id);
             doctorRepository.deleteById(id);
+            tokenService.evictPrincipal(existing.getEmail());
+            availabilityIndex.evictDoctor(id);
+            doctorSchedules.evictDoctor(id);
+            searchIndex.onDeleted(id);
+            doctorCatalog.invalidate(existing.getSpecialty());
             return true;
         } catch (Exception e) {
             return false;
@@ -112,75 +165,75 @@ public class DoctorService {
         return ResponseEntity.ok(response);
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> findDoctorByName(String name) {
         Map<String, Object> response = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findByNameLike("%" + name + "%");
+        List<DoctorSummary> doctors = searchDoctors(name, null);
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorsByNameSpecilityandTime(String name, String specialty, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
+        List<DoctorSummary> doctors = searchDoctors(name, specialty);
         doctors = filterDoctorByTime(doctors, amOrPm);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findByNameLike("%" + name + "%");
+        List<DoctorSummary> doctors = searchDoctors(name, null);
         doctors = filterDoctorByTime(doctors, amOrPm);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specialty) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
+        List<DoctorSummary> doctors = searchDoctors(name, specialty);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorByTimeAndSpecility(String specialty, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        List<DoctorSummary> doctors = doctorCatalog.bySpecialty(specialty);
         doctors = filterDoctorByTime(doctors, amOrPm);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorBySpecility(String specialty) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        List<DoctorSummary> doctors = doctorCatalog.bySpecialty(specialty);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findAll();
-        doctors = filterDoctorByTime(doctors, amOrPm);
+        // Bitwise predicate in SQL, then resolved against the catalog
+        List<Long> ids = doctorRepository.findIdsAvailableIn(AvailabilityMask.forFilter(amOrPm));
+        List<DoctorSummary> doctors = doctorCatalog.byIds(ids);
         Map<String, Object> response = new HashMap<>();
         response.put("doctors", doctors);
         return response;
     }
 
-    private List<Doctor> filterDoctorByTime(List<Doctor> doctors, String amOrPm) {
+    // Candidate ids come from the search index and are resolved against the catalog
+    private List<DoctorSummary> searchDoctors(String name, String specialty) {
+        List<Long> ids = searchIndex.search(name, specialty);
+        if (ids.isEmpty())
+            return List.of();
+        return doctorCatalog.byIds(ids);
+    }
+
+    // Narrows an already loaded list by its cached slot masks; no string parsing
+    private List<DoctorSummary> filterDoctorByTime(List<DoctorSummary> doctors, String amOrPm) {
+        long wanted = AvailabilityMask.forFilter(amOrPm);
         return doctors.stream().filter(d -> {
-            if (d.getAvailableTimes() == null)
-                return false;
-            if (amOrPm.equalsIgnoreCase("AM")) {
-                return d.getAvailableTimes().stream().anyMatch(t -> t.compareTo("12:00") < 0);
-            } else {
-                return d.getAvailableTimes().stream().anyMatch(t -> t.compareTo("12:00") >= 0);
-            }
+            Long offered = d.availabilityMask();
+            long mask = offered != null ? offered : AvailabilityMask.of(d.availableTimes());
+            return (mask & wanted) != 0;
         }).collect(Collectors.toList());
     }
 }
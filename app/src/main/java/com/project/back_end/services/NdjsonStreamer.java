@@ -0,0 +1,75 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes repository streams to the response as newline-delimited JSON, one
+ * row at a time, inside a read-only transaction. Entity rows are detached
+ * once written so neither the persistence context nor the response buffer
+ * grows with the result set; DTO rows are never managed in the first place.
+ */
+@Component
+public class NdjsonStreamer {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Rows between explicit flushes to the client
+    private static final int FLUSH_EVERY = 200;
+
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> query, Function<T, ?> mapper) {
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get();
+                    JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Records are split by the '\n' below, not Jackson's default space
+                generator.setRootValueSeparator(null);
+                int written = 0;
+                Iterator<T> it = rows.iterator();
+                while (it.hasNext()) {
+                    T row = it.next();
+                    writer.writeValue(generator, mapper.apply(row));
+                    generator.writeRaw('\n');
+                    if (row.getClass().isAnnotationPresent(Entity.class))
+                        entityManager.detach(row);
+                    if (++written % FLUSH_EVERY == 0)
+                        generator.flush();
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
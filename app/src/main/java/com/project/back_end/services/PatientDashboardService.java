@@ -0,0 +1,114 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.PrescriptionDTO;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+/**
+ * Everything the patient pages show, in one document: the patient, their
+ * appointments and the prescriptions written for them. The appointments come
+ * from one MySQL query on the application task executor; the prescriptions
+ * follow from one Mongo $in query over their ids, so the page costs two
+ * serial round trips. Each section has its own time budget. A section that
+ * fails or runs over comes back empty and is named under "incomplete" instead
+ * of failing the whole page.
+ */
+@Service
+public class PatientDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientDashboardService.class);
+
+    private final PatientService patientService;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final AsyncTaskExecutor taskExecutor;
+
+    @Value("${dashboard.budget.appointments:1500ms}")
+    private Duration appointmentsBudget;
+
+    @Value("${dashboard.budget.prescriptions:1000ms}")
+    private Duration prescriptionsBudget;
+
+    public PatientDashboardService(PatientService patientService,
+            AppointmentRepository appointmentRepository,
+            PrescriptionRepository prescriptionRepository,
+            AsyncTaskExecutor taskExecutor) {
+        this.patientService = patientService;
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    // Null when the token names no patient
+    public Map<String, Object> getDashboard(String token) {
+        Patient patient = patientService.getPatientDetails(token);
+        if (patient == null) {
+            return null;
+        }
+        CompletableFuture<List<AppointmentDTO>> loaded = CompletableFuture.supplyAsync(
+                () -> appointmentRepository.findDtosByPatientId(patient.getId()), taskExecutor);
+        CompletableFuture<List<AppointmentDTO>> appointments = within("appointments", appointmentsBudget, loaded);
+        // Chained on the appointments, whose ids it reuses; its own budget starts
+        // once they are in, and the whole chain is held to both budgets
+        CompletableFuture<Map<Long, List<PrescriptionDTO>>> prescriptions = within("prescriptions",
+                appointmentsBudget.plus(prescriptionsBudget),
+                loaded.thenCompose(list -> within("prescriptions", prescriptionsBudget,
+                        CompletableFuture.supplyAsync(() -> prescriptionsByAppointment(list), taskExecutor))));
+
+        List<String> incomplete = new ArrayList<>();
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("patient", patient);
+        dashboard.put("appointments", orEmpty(appointments.join(), List.of(), "appointments", incomplete));
+        dashboard.put("prescriptions", orEmpty(prescriptions.join(), Map.of(), "prescriptions", incomplete));
+        dashboard.put("incomplete", incomplete);
+        return dashboard;
+    }
+
+    private Map<Long, List<PrescriptionDTO>> prescriptionsByAppointment(List<AppointmentDTO> appointments) {
+        if (appointments.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> appointmentIds = appointments.stream().map(AppointmentDTO::getId).toList();
+        return prescriptionRepository.findByAppointmentIdIn(appointmentIds).stream()
+                .collect(Collectors.groupingBy(Prescription::getAppointmentId, TreeMap::new,
+                        Collectors.mapping(PrescriptionDTO::new, Collectors.toList())));
+    }
+
+    // Null once the fetch fails or exceeds its budget. A fetch that runs over
+    // is abandoned, not interrupted.
+    private <T> CompletableFuture<T> within(String section, Duration budget, CompletableFuture<T> fetch) {
+        return fetch
+                .orTimeout(budget.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Dashboard {} not loaded within {}: {}", section, budget, e.toString());
+                    return null;
+                });
+    }
+
+    private static <T> T orEmpty(T value, T empty, String section, List<String> incomplete) {
+        if (value != null) {
+            return value;
+        }
+        incomplete.add(section);
+        return empty;
+    }
+}
@@ -4,14 +4,16 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.PageCursor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -19,16 +21,22 @@ import com.project.back_end.repo.PatientRepository;
 @Service
 public class PatientService {
 
+    private static final Sort BY_TIME = Sort.by("appointmentTime", "id");
+    private static final int SCHEDULED = AppointmentService.statusCode("scheduled");
+
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     public PatientService(PatientRepository patientRepository,
             AppointmentRepository appointmentRepository,
-            TokenService tokenService) {
+            TokenService tokenService,
+            NdjsonStreamer ndjsonStreamer) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     // 1. Create a new patient
@@ -52,32 +60,40 @@ public class PatientService {
             response.put("error", "Unauthorized access");
             return ResponseEntity.status(401).body(response);
         }
-        List<Appointment> appointments = appointmentRepository.findByPatient_Id(id);
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(AppointmentDTO::new)
-                .collect(Collectors.toList());
-        response.put("appointments", appointmentDTOs);
+        response.put("appointments", appointmentRepository.findDtosByPatientId(id));
         return ResponseEntity.ok(response);
     }
 
+    // 2b. Same as above, one keyset page at a time
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token, String after,
+            Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        String email = tokenService.extractIdentifier(token);
+        Patient patient = patientRepository.findByEmail(email);
+        if (patient == null || !patient.getId().equals(id)) {
+            response.put("error", "Unauthorized access");
+            return ResponseEntity.status(401).body(response);
+        }
+        return getAppointmentPage(id, null, null, after, limit);
+    }
+
+    // 2c. Same as above, streamed as NDJSON; null when the token does not own the id
+    @Transactional(readOnly = true)
+    public StreamingResponseBody streamPatientAppointments(Long id, String token) {
+        String email = tokenService.extractIdentifier(token);
+        Patient patient = patientRepository.findByEmail(email);
+        if (patient == null || !patient.getId().equals(id)) {
+            return null;
+        }
+        return ndjsonStreamer.stream(() -> appointmentRepository.streamByPatientId(id), appointment -> appointment);
+    }
+
     // 3. Filter appointments by condition (past/future)
     @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         Map<String, Object> response = new HashMap<>();
-        List<Appointment> allAppointments = appointmentRepository.findByPatient_Id(id);
-
-        List<AppointmentDTO> filtered = allAppointments.stream()
-                .filter(a -> {
-                    if ("past".equalsIgnoreCase(condition))
-                        return a.getAppointmentTime().isBefore(LocalDateTime.now());
-                    else if ("future".equalsIgnoreCase(condition))
-                        return a.getAppointmentTime().isAfter(LocalDateTime.now());
-                    return false;
-                })
-                .map(AppointmentDTO::new)
-                .collect(Collectors.toList());
-
-        response.put("appointments", filtered);
+        response.put("appointments", findByCondition(id, condition, null, null, Limit.unlimited()));
         return ResponseEntity.ok(response);
     }
 
@@ -85,12 +101,7 @@ public class PatientService {
     @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
         Map<String, Object> response = new HashMap<>();
-        List<AppointmentDTO> filtered = appointmentRepository
-                .filterByDoctorNameAndPatientId(name, patientId)
-                .stream()
-                .map(AppointmentDTO::new)
-                .collect(Collectors.toList());
-        response.put("appointments", filtered);
+        response.put("appointments", appointmentRepository.findDtosByDoctorNameAndPatientId(name, patientId));
         return ResponseEntity.ok(response);
     }
 
@@ -99,25 +110,83 @@ public class PatientService {
     public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name,
             long patientId) {
         Map<String, Object> response = new HashMap<>();
-        List<Appointment> appointments = appointmentRepository
-                .filterByDoctorNameAndPatientId(name, patientId);
-
-        List<AppointmentDTO> filtered = appointments.stream()
-                .filter(a -> {
-                    if ("past".equalsIgnoreCase(condition))
-                        return a.getAppointmentTime().isBefore(LocalDateTime.now());
-                    else if ("future".equalsIgnoreCase(condition))
-                        return a.getAppointmentTime().isAfter(LocalDateTime.now());
-                    return false;
-                })
-                .map(AppointmentDTO::new)
-                .collect(Collectors.toList());
-
-        response.put("appointments", filtered);
+        response.put("appointments", findByCondition(patientId, condition, name, null, Limit.unlimited()));
+        return ResponseEntity.ok(response);
+    }
+
+    // 5b. The patient's next scheduled appointment; null in the body when none
+    // is coming up
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getNextAppointment(Long id, String token) {
+        Map<String, Object> response = new HashMap<>();
+        String email = tokenService.extractIdentifier(token);
+        Patient patient = patientRepository.findByEmail(email);
+        if (patient == null || !patient.getId().equals(id)) {
+            response.put("error", "Unauthorized access");
+            return ResponseEntity.status(401).body(response);
+        }
+        List<AppointmentDTO> next = findByCondition(id, "future", null, SCHEDULED, Limit.of(1));
+        response.put("appointment", next.isEmpty() ? null : next.get(0));
+        return ResponseEntity.ok(response);
+    }
+
+    // Past or future appointments in time order, cut by the database at now;
+    // an unknown condition matches nothing
+    private List<AppointmentDTO> findByCondition(Long patientId, String condition, String doctorName,
+            Integer status, Limit limit) {
+        LocalDateTime now = LocalDateTime.now();
+        if ("past".equalsIgnoreCase(condition))
+            return appointmentRepository.findDtosBefore(patientId, now, doctorName, status, BY_TIME, limit);
+        if ("future".equalsIgnoreCase(condition))
+            return appointmentRepository.findDtosAfter(patientId, now, doctorName, status, BY_TIME, limit);
+        return List.of();
+    }
+
+    // 6. Keyset page of a patient's appointments ordered by time, optionally
+    // filtered by condition (past/future) and doctor name
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getAppointmentPage(Long patientId, String condition,
+            String doctorName, String after, Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        PageCursor.AppointmentKey key;
+        try {
+            key = PageCursor.appointmentKey(after);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        if (condition != null) {
+            if ("past".equalsIgnoreCase(condition))
+                to = LocalDateTime.now();
+            else if ("future".equalsIgnoreCase(condition))
+                from = LocalDateTime.now();
+            else {
+                response.put("appointments", List.of());
+                response.put("nextCursor", null);
+                return ResponseEntity.ok(response);
+            }
+        }
+
+        int pageSize = PageCursor.limit(limit);
+        List<AppointmentDTO> rows = appointmentRepository.findPatientPage(patientId, doctorName, from, to,
+                key != null ? key.appointmentTime() : null,
+                key != null ? key.id() : null,
+                Limit.of(pageSize + 1));
+
+        // One extra row tells us whether there is a next page
+        boolean hasMore = rows.size() > pageSize;
+        List<AppointmentDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        AppointmentDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        response.put("appointments", page);
+        response.put("nextCursor", hasMore ? PageCursor.ofAppointment(last.getAppointmentTime(), last.getId()) : null);
         return ResponseEntity.ok(response);
     }
 
-    // 6. Get patient details by token
+    // 7. Get patient details by token
     @Transactional(readOnly = true)
     public Patient getPatientDetails(String token) {
         String email = tokenService.extractIdentifier(token);
@@ -1,45 +1,102 @@
 package com.project.back_end.services;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.config.MongoIndexes;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.PrescriptionRepository;
 
 @Service
 public class PrescriptionService {
 
+    public enum Save {
+        SAVED,
+        // The appointment already has a prescription, stored or buffered
+        DUPLICATE,
+        FAILED
+    }
+
     private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionWriteBuffer writeBuffer;
+    private final AppointmentStatusOutbox statusOutbox;
+    private final ObjectProvider<MongoIndexes> mongoIndexes;
 
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+            PrescriptionWriteBuffer writeBuffer,
+            AppointmentStatusOutbox statusOutbox,
+            ObjectProvider<MongoIndexes> mongoIndexes) {
         this.prescriptionRepository = prescriptionRepository;
+        this.writeBuffer = writeBuffer;
+        this.statusOutbox = statusOutbox;
+        this.mongoIndexes = mongoIndexes;
     }
 
-    // 1. Save a new prescription
-    public boolean savePrescription(Prescription prescription) {
-        Map<String, String> response = new HashMap<>();
-        try {
-            List<Prescription> existing = prescriptionRepository.findByAppointmentId(prescription.getAppointmentId());
-            if (!existing.isEmpty()) {
-                response.put("message", "Prescription already exists for this appointment");
-                return false;
+    // 1. Save a new prescription. A single insert: the unique index on
+    // appointmentId rejects a second prescription for the same appointment,
+    // including one racing in concurrently. Until MongoIndexes has confirmed
+    // that index, an existing prescription is looked up first instead.
+    // With write-behind on, it is buffered instead and stored in a later batch,
+    // but only once neither Mongo nor the buffer holds one for the appointment,
+    // so a duplicate is still refused here rather than dropped by the flush.
+    // The appointment is marked prescribed afterwards by AppointmentStatusOutbox.
+    public Save savePrescription(Prescription prescription) {
+        prescription.setStatusPendingSince(Instant.now());
+        if (writeBuffer.isEnabled() && writeBuffer.pending(prescription.getAppointmentId()) != null)
+            return Save.DUPLICATE;
+        if (writeBuffer.isEnabled() || !uniqueIndexCreated()) {
+            try {
+                if (prescriptionRepository.existsByAppointmentId(prescription.getAppointmentId()))
+                    return Save.DUPLICATE;
+            } catch (Exception e) {
+                // Nothing is acknowledged without the check
+                e.printStackTrace();
+                return Save.FAILED;
             }
-            prescriptionRepository.save(prescription);
-            response.put("message", "Prescription saved");
-            return true;
+        }
+        if (writeBuffer.isEnabled()) {
+            switch (writeBuffer.offer(prescription)) {
+                case QUEUED:
+                    return Save.SAVED;
+                case DUPLICATE:
+                    return Save.DUPLICATE;
+                case REFUSED:
+                    // Buffer full or unavailable, write it now
+                    break;
+            }
+        }
+        try {
+            prescriptionRepository.insert(prescription);
+            statusOutbox.wake();
+            return Save.SAVED;
+        } catch (DuplicateKeyException e) {
+            return Save.DUPLICATE;
         } catch (Exception e) {
             e.printStackTrace();
-            response.put("message", "An error occurred while saving the prescription");
-            return false;
+            return Save.FAILED;
         }
     }
 
-    // 2. Retrieve prescription by appointment ID
+    private boolean uniqueIndexCreated() {
+        MongoIndexes indexes = mongoIndexes.getIfAvailable();
+        return indexes != null && indexes.isCreated();
+    }
+
+    // 2. Retrieve prescription by appointment ID, including one still buffered
     public Prescription getPrescription(Long appointmentId) {
         Map<String, Object> response = new HashMap<>();
+        Prescription buffered = writeBuffer.pending(appointmentId);
+        if (buffered != null) {
+            return buffered;
+        }
         try {
             List<Prescription> prescriptions = prescriptionRepository.findByAppointmentId(appointmentId);
             if (prescriptions.isEmpty()) {
@@ -54,4 +111,39 @@ public class PrescriptionService {
             return null;
         }
     }
+
+    // 3. Prescriptions of many appointments in one query, keyed by appointment
+    // ID; appointments without one are left out
+    public Map<Long, Prescription> getPrescriptions(Collection<Long> appointmentIds) {
+        try {
+            Map<Long, Prescription> prescriptions = new TreeMap<>();
+            for (Prescription prescription : prescriptionRepository.findByAppointmentIdIn(appointmentIds))
+                prescriptions.put(prescription.getAppointmentId(), prescription);
+            for (Long appointmentId : appointmentIds) {
+                Prescription buffered = writeBuffer.pending(appointmentId);
+                if (buffered != null)
+                    prescriptions.put(appointmentId, buffered);
+            }
+            return prescriptions;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // 4. Whether each of the appointments has a prescription, from the index alone
+    public Map<Long, Boolean> getPrescribed(Collection<Long> appointmentIds) {
+        try {
+            Map<Long, Boolean> prescribed = new TreeMap<>();
+            for (Long appointmentId : appointmentIds)
+                prescribed.put(appointmentId, writeBuffer.pending(appointmentId) != null);
+            for (PrescriptionRepository.PrescribedAppointment row : prescriptionRepository
+                    .findPrescribedAmong(appointmentIds))
+                prescribed.put(row.getAppointmentId(), true);
+            return prescribed;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
@@ -0,0 +1,349 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.project.back_end.models.Prescription;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind for prescriptions (prescription.write-behind.enabled).
+ * An accepted prescription is appended to a local journal and fsynced, kept in
+ * memory where PrescriptionService reads see it, and stored later by one
+ * unordered bulk insert per batch-size prescriptions or flush-interval,
+ * whichever comes first. After each batch the journal is rewritten to hold
+ * only what is still unflushed; on startup it is replayed, so an acknowledged
+ * prescription survives a crash. Entries that turn out to be stored already
+ * are dropped by the unique appointmentId index.
+ */
+@Component
+public class PrescriptionWriteBuffer {
+
+    public enum Offer {
+        QUEUED,
+        // Another prescription for the appointment is still buffered
+        DUPLICATE,
+        // Not buffered (full, shutting down or journal failure); write it directly
+        REFUSED
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionWriteBuffer.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${prescription.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${prescription.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${prescription.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${prescription.write-behind.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${prescription.write-behind.journal:prescription-journal.ndjson}")
+    private Path journalPath;
+
+    // Accepted but not yet stored, by appointment id
+    private final ConcurrentMap<Long, Prescription> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<Prescription> queue = new LinkedBlockingQueue<>();
+
+    // Appends hold journalLock; an fsync holds syncLock and covers every append
+    // finished before it started, so concurrent writers share one
+    private final Object journalLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel journal;
+    private long written;
+    private long synced;
+
+    private volatile boolean running;
+    private Thread flusher;
+    private Counter stored;
+    private Counter duplicates;
+    private Counter failures;
+
+    public PrescriptionWriteBuffer(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void init() throws IOException {
+        if (!enabled)
+            return;
+        open();
+        flusher = Thread.ofPlatform().name("prescription-write-behind").daemon().start(this::flushLoop);
+    }
+
+    // Replays the journal and opens it for appends; the flusher is not started
+    void open() throws IOException {
+        stored = meterRegistry.counter("prescription.write_behind.writes", "result", "stored");
+        duplicates = meterRegistry.counter("prescription.write_behind.writes", "result", "duplicate");
+        failures = meterRegistry.counter("prescription.write_behind.failures");
+        Gauge.builder("prescription.write_behind.pending", pending, ConcurrentMap::size).register(meterRegistry);
+
+        Path directory = journalPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        if (Files.exists(journalPath)) {
+            int replayed = 0;
+            // Decoded leniently: a torn last line may end inside a character
+            String entries = new String(Files.readAllBytes(journalPath), StandardCharsets.UTF_8);
+            for (String line : entries.split("\n")) {
+                if (line.isBlank())
+                    continue;
+                try {
+                    Prescription prescription = objectMapper.readValue(line, Prescription.class);
+                    if (pending.putIfAbsent(prescription.getAppointmentId(), prescription) == null) {
+                        queue.add(prescription);
+                        replayed++;
+                    }
+                } catch (JsonProcessingException e) {
+                    // A line torn by the crash was never acknowledged
+                    log.warn("Skipping unreadable prescription journal entry: {}", e.getOriginalMessage());
+                }
+            }
+            if (replayed > 0)
+                log.info("Replaying {} unflushed prescriptions from {}", replayed, journalPath);
+        }
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        written = synced = journal.size();
+        running = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Offer offer(Prescription prescription) {
+        Long appointmentId = prescription.getAppointmentId();
+        if (!running || appointmentId == null)
+            return Offer.REFUSED;
+        if (pending.containsKey(appointmentId))
+            return Offer.DUPLICATE;
+        if (pending.size() >= capacity)
+            return Offer.REFUSED;
+        if (pending.putIfAbsent(appointmentId, prescription) != null)
+            return Offer.DUPLICATE;
+        try {
+            append(prescription);
+        } catch (IOException e) {
+            pending.remove(appointmentId, prescription);
+            log.warn("Prescription journal append failed, writing directly: {}", e.getMessage());
+            return Offer.REFUSED;
+        }
+        queue.add(prescription);
+        return Offer.QUEUED;
+    }
+
+    // The buffered prescription for the appointment, or null
+    public Prescription pending(Long appointmentId) {
+        return appointmentId != null ? pending.get(appointmentId) : null;
+    }
+
+    @PreDestroy
+    private void close() throws IOException, InterruptedException {
+        if (!running)
+            return;
+        running = false;
+        // The flusher drains what is queued before it exits; whatever Mongo
+        // does not take in time stays in the journal for the next start
+        if (flusher != null)
+            flusher.join(MAX_BACKOFF.toMillis());
+        synchronized (syncLock) {
+            synchronized (journalLock) {
+                journal.close();
+            }
+        }
+    }
+
+    // Writes everything queued now on the calling thread. Returns how many
+    // prescriptions are still unflushed.
+    int flushPending() throws IOException {
+        List<Prescription> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            if (!batch.isEmpty()) {
+                queue.addAll(batch);
+                break;
+            }
+        }
+        compact();
+        return pending.size();
+    }
+
+    private void flushLoop() {
+        List<Prescription> batch = new ArrayList<>(batchSize);
+        long backoff = flushInterval.toMillis();
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty())
+                    collect(batch);
+                if (batch.isEmpty())
+                    continue;
+                write(batch);
+                compact();
+                if (batch.isEmpty()) {
+                    backoff = flushInterval.toMillis();
+                } else if (!running) {
+                    // Shutting down with Mongo unavailable; the journal has the rest
+                    return;
+                } else {
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Prescription write-behind flush failed", e);
+            }
+        }
+    }
+
+    // Waits for a first prescription, then up to flush-interval for the batch to fill
+    private void collect(List<Prescription> batch) throws InterruptedException {
+        Prescription first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null)
+            return;
+        batch.add(first);
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            long left = deadline - System.nanoTime();
+            Prescription next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    // One unordered bulk insert. Stored and duplicate prescriptions leave the
+    // batch; the ones left behind are to be retried.
+    private void write(List<Prescription> batch) {
+        Set<Integer> retry = new HashSet<>();
+        int duplicate = 0;
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Prescription.class).insert(batch).execute();
+        } catch (RuntimeException e) {
+            // Per-document failures arrive as BulkOperationException; a failed
+            // round trip may surface untranslated from the driver
+            if (!(e.getCause() instanceof MongoBulkWriteException bulk)) {
+                failures.increment();
+                log.warn("Could not flush {} prescriptions, will retry: {}", batch.size(), e.getMessage());
+                return;
+            }
+            for (BulkWriteError error : bulk.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    duplicate++;
+                    log.warn("Dropping buffered prescription for appointment {}, one is already stored",
+                            batch.get(error.getIndex()).getAppointmentId());
+                } else {
+                    retry.add(error.getIndex());
+                }
+            }
+            if (!retry.isEmpty())
+                failures.increment();
+        }
+        stored.increment(batch.size() - retry.size() - duplicate);
+        duplicates.increment(duplicate);
+
+        List<Prescription> left = new ArrayList<>(retry.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Prescription prescription = batch.get(i);
+            if (retry.contains(i))
+                left.add(prescription);
+            else
+                pending.remove(prescription.getAppointmentId(), prescription);
+        }
+        batch.clear();
+        batch.addAll(left);
+    }
+
+    private void append(Prescription prescription) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(
+                (objectMapper.writeValueAsString(prescription) + "\n").getBytes(StandardCharsets.UTF_8));
+        long end;
+        synchronized (journalLock) {
+            while (line.hasRemaining())
+                written += journal.write(line);
+            end = written;
+        }
+        synchronized (syncLock) {
+            if (synced < end) {
+                long upTo;
+                synchronized (journalLock) {
+                    upTo = written;
+                }
+                journal.force(false);
+                synced = upTo;
+            }
+        }
+    }
+
+    // Rewrites the journal to the prescriptions still unflushed
+    private void compact() throws IOException {
+        synchronized (syncLock) {
+            synchronized (journalLock) {
+                if (!journal.isOpen())
+                    return;
+                Path rewritten = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(rewritten, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Prescription prescription : pending.values()) {
+                        ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(prescription) + "\n")
+                                .getBytes(StandardCharsets.UTF_8));
+                        while (line.hasRemaining())
+                            out.write(line);
+                    }
+                    out.force(false);
+                }
+                journal.close();
+                Files.move(rewritten, journalPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                written = synced = journal.size();
+            }
+        }
+    }
+}
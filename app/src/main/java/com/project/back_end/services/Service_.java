@@ -1,7 +1,6 @@
 package com.project.back_end.services;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
@@ -10,7 +9,6 @@ import org.springframework.stereotype.Service;
 
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Admin;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
@@ -74,15 +72,6 @@ public class Service_ {
         return doctorService.filterDoctorsByNameSpecilityandTime(name, specialty, time);
     }
 
-    public int validateAppointment(Appointment appointment) {
-        if (!doctorRepository.existsById(appointment.getDoctorId()))
-            return -1;
-        List<String> availableSlots = doctorService.getDoctorAvailability(
-                appointment.getDoctorId(),
-                appointment.getAppointmentTime().toLocalDate());
-        return availableSlots.contains(appointment.getAppointmentTime().toLocalTime().toString()) ? 1 : 0;
-    }
-
     public boolean validatePatient(Patient patient) {
         return patientRepository.findByEmailOrPhone(patient.getEmail(), patient.getPhone()) == null;
     }
@@ -110,6 +99,12 @@ public class Service_ {
     }
 
     public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token) {
+        return filterPatient(condition, name, token, null, null);
+    }
+
+    // after/limit switch to keyset pages; without them the full list is returned
+    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token,
+            String after, Integer limit) {
         Map<String, Object> response = new HashMap<>();
         try {
             String email = tokenService.extractIdentifier(token);
@@ -119,6 +114,10 @@ public class Service_ {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
+            if (after != null || limit != null) {
+                return patientService.getAppointmentPage(patient.getId(), condition, name, after, limit);
+            }
+
             if (condition != null && name != null) {
                 return patientService.filterByDoctorAndCondition(condition, name, patient.getId());
             } else if (condition != null) {
@@ -1,12 +1,23 @@
 package com.project.back_end.services;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
@@ -14,33 +25,84 @@ import com.project.back_end.repo.PatientRepository;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 
 @Component
 public class TokenService {
 
+    // Request attribute holding the role the request's token was checked
+    // against; read by RequestMetricsConvention for the role tag
+    public static final String ROLE_ATTRIBUTE = TokenService.class.getName() + ".role";
+
+    private static final List<String> ROLES = List.of("admin", "doctor", "patient");
+
+    enum AuthOutcome {
+        VALID, EXPIRED, UNKNOWN_USER, INVALID, ERROR
+    }
+
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final MeterRegistry meterRegistry;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Upper bound on cached verified tokens
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    // How long a verified token is trusted before the user lookup runs again
+    @Value("${jwt.cache.ttl:5m}")
+    private Duration cacheTtl;
+
     private SecretKey signingKey;
 
+    private JwtParser parser;
+
+    // token -> principal that already passed signature check and user lookup
+    private Cache<String, VerifiedPrincipal> principals;
+
+    // auth.token.validations counters by role tag, then outcome
+    private Map<String, Map<AuthOutcome, Counter>> authOutcomes;
+
     public TokenService(AdminRepository adminRepository,
             DoctorRepository doctorRepository,
-            PatientRepository patientRepository) {
+            PatientRepository patientRepository,
+            MeterRegistry meterRegistry) {
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostConstruct
     private void init() {
         this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new PrincipalExpiry(cacheTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "tokenPrincipals");
+
+        this.authOutcomes = new HashMap<>();
+        for (String role : List.of("admin", "doctor", "patient", "other")) {
+            Map<AuthOutcome, Counter> byOutcome = new EnumMap<>(AuthOutcome.class);
+            for (AuthOutcome outcome : AuthOutcome.values())
+                byOutcome.put(outcome, meterRegistry.counter("auth.token.validations",
+                        "role", role, "outcome", outcome.name().toLowerCase()));
+            authOutcomes.put(role, byOutcome);
+        }
     }
 
     // Generate JWT for Doctor object
@@ -61,51 +123,68 @@ public class TokenService {
                 .compact();
     }
 
-    
+
     // Extract identifier (subject) from JWT
     public String extractIdentifier(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getSubject();
-        } 
-
-        catch (io.jsonwebtoken.ExpiredJwtException | 
-             io.jsonwebtoken.MalformedJwtException | 
-             io.jsonwebtoken.security.SignatureException |
-             SecurityException e) {
-        // token is invalid, expired, or signature is incorrect
-        return null;
-        } 
-        catch (JwtException e) {
-            // general JWT parsing exception
+        if (token == null)
             return null;
-        }
+        VerifiedPrincipal cached = principals.getIfPresent(token);
+        if (cached != null)
+            return cached.identifier();
+
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
- 
+
     // Validate token for a specific role
     public boolean validateToken(String token, String role) {
+        String normalizedRole = role != null ? role.toLowerCase() : "";
+        String roleTag = ROLES.contains(normalizedRole) ? normalizedRole : "other";
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null)
+            request.setAttribute(ROLE_ATTRIBUTE, roleTag, RequestAttributes.SCOPE_REQUEST);
+
+        AuthOutcome outcome = verify(token, normalizedRole);
+        authOutcomes.get(roleTag).get(outcome).increment();
+        return outcome == AuthOutcome.VALID;
+    }
+
+    private AuthOutcome verify(String token, String normalizedRole) {
         try {
-            String identifier = extractIdentifier(token);
-            if (identifier == null)
-                return false;
-
-            switch (role.toLowerCase()) {
-                case "admin":
-                    return adminRepository.existsByUsername(identifier);
-                case "doctor":
-                    return doctorRepository.existsByEmail(identifier);
-                case "patient":
-                    return patientRepository.existsByEmail(identifier);
-                default:
-                    return false;
+            VerifiedPrincipal cached = principals.getIfPresent(token);
+            if (cached != null && cached.role().equals(normalizedRole))
+                return AuthOutcome.VALID;
+
+            Claims claims;
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (io.jsonwebtoken.ExpiredJwtException e) {
+                return AuthOutcome.EXPIRED;
+            } catch (JwtException | IllegalArgumentException e) {
+                return AuthOutcome.INVALID;
             }
+            String identifier = claims.getSubject();
+            if (identifier == null || !ROLES.contains(normalizedRole))
+                return AuthOutcome.INVALID;
+
+            boolean exists = switch (normalizedRole) {
+                case "admin" -> adminRepository.existsByUsername(identifier);
+                case "doctor" -> doctorRepository.existsByEmail(identifier);
+                case "patient" -> patientRepository.existsByEmail(identifier);
+                default -> false;
+            };
+            if (!exists)
+                return AuthOutcome.UNKNOWN_USER;
+
+            Instant expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().toInstant()
+                    : Instant.now().plus(cacheTtl);
+            principals.put(token, new VerifiedPrincipal(normalizedRole, identifier, expiresAt));
+            return AuthOutcome.VALID;
         } catch (Exception e) {
-            return false;
+            // User lookup failed (database down); treated as not authorized
+            return AuthOutcome.ERROR;
         }
     }
 
@@ -114,4 +193,68 @@ public class TokenService {
         Doctor doctor = doctorRepository.findByEmail(identifier);
         return doctor != null ? doctor.getId() : null;
     }
+
+    // Drop every cached token issued to this identifier. Called when the
+    // doctor/patient/admin behind it is deleted or changes email. Inside a
+    // transaction the eviction is repeated after commit so a concurrent
+    // request cannot re-cache the old row before it is gone.
+    public void evictPrincipal(String identifier) {
+        if (identifier == null)
+            return;
+        removePrincipal(identifier);
+        AfterCommit.run(() -> removePrincipal(identifier));
+    }
+
+    private void removePrincipal(String identifier) {
+        principals.asMap().values().removeIf(p -> p.identifier().equals(identifier));
+    }
+
+    private Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+
+        catch (io.jsonwebtoken.ExpiredJwtException |
+             io.jsonwebtoken.MalformedJwtException |
+             io.jsonwebtoken.security.SignatureException |
+             SecurityException e) {
+        // token is invalid, expired, or signature is incorrect
+        return null;
+        }
+        catch (JwtException | IllegalArgumentException e) {
+            // general JWT parsing exception
+            return null;
+        }
+    }
+
+    private record VerifiedPrincipal(String role, String identifier, Instant expiresAt) {
+    }
+
+    // Entries live for the configured TTL but never past the token's own expiry
+    private static final class PrincipalExpiry implements Expiry<String, VerifiedPrincipal> {
+
+        private final long ttlNanos;
+
+        PrincipalExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedPrincipal principal, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), principal.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedPrincipal principal, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(token, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedPrincipal principal, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -2,8 +2,7 @@
 // Creates dynamic doctor cards for Admin and Patient dashboards
 
 import { deleteDoctor } from '../services/doctorServices.js';
-import { getPatientData } from '../services/patientServices.js';
-import { showBookingOverlay } from '../loggedPatient.js';
+import { getLoggedPatient, showBookingOverlay } from '../loggedPatient.js';
 
 
 export function createDoctorCard(doctor) {
@@ -83,7 +82,7 @@ export function createDoctorCard(doctor) {
         return;
       }
       try {
-        const patientData = await getPatientData(token);
+        const patientData = await getLoggedPatient(token);
         showBookingOverlay(e, doctor, patientData);
       } catch (err) {
         console.error(err);
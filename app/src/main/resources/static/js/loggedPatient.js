@@ -3,12 +3,29 @@ import { getDoctors } from './services/doctorServices.js';
 import { createDoctorCard } from './components/doctorCard.js';
 import { filterDoctors } from './services/doctorServices.js';
 import { bookAppointment } from './services/appointmentRecordService.js';
+import { getPatientData, getPatientDashboard } from './services/patientServices.js';
 
+// The logged-in patient, their appointments and prescriptions, fetched once
+// per page load
+let dashboard = null;
 
 document.addEventListener("DOMContentLoaded", () => {
+  const token = localStorage.getItem("token");
+  if (token) dashboard = getPatientDashboard(token);
   loadDoctorCards();
 });
 
+/**
+ * The logged-in patient, from the dashboard loaded with the page
+ * @param {string} token - Patient authentication token
+ * @returns {Object|null} Patient data object or null on failure
+ */
+export async function getLoggedPatient(token) {
+  const data = dashboard ? await dashboard : null;
+  if (data?.patient) return data.patient;
+  return getPatientData(token);
+}
+
 function loadDoctorCards() {
   getDoctors()
     .then(doctors => {
@@ -1,5 +1,5 @@
 // patientAppointment.js
-import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
+import { getPatientAppointments, getPatientDashboard, filterAppointments } from "./services/patientServices.js";
 
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
@@ -14,12 +14,16 @@ async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const patient = await getPatientData(token);
-    if (!patient) throw new Error("Failed to fetch patient details");
+    // Patient and appointments in one request
+    const dashboard = await getPatientDashboard(token);
+    if (!dashboard?.patient) throw new Error("Failed to fetch patient details");
 
-    patientId = Number(patient.id);
+    patientId = Number(dashboard.patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token, "patient") || [];
+    // Fetched on their own only if the dashboard ran out of time for them
+    const appointmentData = dashboard.incomplete?.includes("appointments")
+      ? await getPatientAppointments(patientId, token, "patient") || []
+      : dashboard.appointments;
     allAppointments = appointmentData.filter(app => app.patientId === patientId);
 
     renderAppointments(allAppointments);
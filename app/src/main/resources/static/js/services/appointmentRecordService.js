@@ -10,7 +10,8 @@ export async function getAllAppointments(date, patientName, token) {
     throw new Error("Failed to fetch appointments");
   }
 
-  return await response.json();
+  const data = await response.json();
+  return data.appointments;
 }
 
 export async function bookAppointment(appointment, token) {
@@ -60,3 +61,20 @@ export async function updateAppointment(appointment, token) {
     };
   }
 }
+
+// Change the status of many appointments at once (doctor or admin). Pass
+// { status, ids } or { status, doctorId, from, to, currentStatus }.
+export async function changeAppointmentStatus(change, token) {
+  const response = await fetch(`${APPOINTMENT_API}/status/${token}`, {
+    method: "PUT",
+    headers: {
+      "Content-Type": "application/json"
+    },
+    body: JSON.stringify(change)
+  });
+  const data = await response.json();
+  if (!response.ok) {
+    throw new Error(data.error || "Failed to change appointment status");
+  }
+  return data;
+}
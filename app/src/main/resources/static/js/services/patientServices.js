@@ -103,6 +103,41 @@ export async function getPatientAppointments(id, token, user) {
   }
 }
 
+/**
+ * Get the patient, their appointments and prescriptions in one request
+ * @param {string} token - Patient authentication token
+ * @returns {Object|null} { patient, appointments, prescriptions, incomplete } or null on failure
+ */
+export async function getPatientDashboard(token) {
+  try {
+    const response = await fetch(`${PATIENT_API}/dashboard/${token}`);
+    const data = await response.json();
+    if (response.ok) return data;
+    return null;
+  } catch (error) {
+    console.error("Error fetching patient dashboard:", error);
+    return null;
+  }
+}
+
+/**
+ * Get a patient's next scheduled appointment
+ * @param {string} id - Patient ID
+ * @param {string} token - Patient authentication token
+ * @returns {Object|null} The appointment, or null when none is coming up or on failure
+ */
+export async function getNextAppointment(id, token) {
+  try {
+    const response = await fetch(`${PATIENT_API}/${id}/next/${token}`);
+    const data = await response.json();
+    if (response.ok) return data.appointment;
+    return null;
+  } catch (error) {
+    console.error("Error fetching next appointment:", error);
+    return null;
+  }
+}
+
 /**
  * Filter appointments by condition and name
  * @param {string} condition - Status filter (e.g., "pending", "consulted")
@@ -44,3 +44,21 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// Prescriptions for many appointments in one request, keyed by appointment id.
+// With view "exists" the map holds true/false per appointment instead.
+export async function getPrescriptions(appointmentIds, token, view = "full") {
+  try {
+    const params = new URLSearchParams({ appointmentIds: appointmentIds.join(","), view });
+    const response = await fetch(`${PRESCRITION_API}/bulk/${token}?${params}`);
+    const result = await response.json();
+    if (!response.ok) {
+      console.error("Failed to fetch prescriptions:", result);
+      return {};
+    }
+    return view === "exists" ? result.prescribed : result.prescriptions;
+  } catch (error) {
+    console.error("Error :: getPrescriptions ::", error);
+    return {};
+  }
+}
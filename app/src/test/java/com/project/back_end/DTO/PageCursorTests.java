@@ -0,0 +1,64 @@
+package com.project.back_end.DTO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class PageCursorTests {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 3, 2, 9, 30);
+
+    @Test
+    void cursorsDecodeToTheKeyTheyWereMadeFrom() {
+        String appointment = PageCursor.ofAppointment(TIME, 42L);
+        String doctor = PageCursor.ofDoctor(7L);
+
+        assertThat(PageCursor.appointmentKey(appointment)).isEqualTo(new PageCursor.AppointmentKey(TIME, 42L));
+        assertThat(PageCursor.doctorKey(doctor)).isEqualTo(7L);
+        // Safe in a query string as is
+        assertThat(appointment + doctor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansTheFirstPage() {
+        assertThat(PageCursor.appointmentKey(null)).isNull();
+        assertThat(PageCursor.appointmentKey("")).isNull();
+        assertThat(PageCursor.doctorKey(null)).isZero();
+        assertThat(PageCursor.doctorKey("")).isZero();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.appointmentKey("not base64!"))
+                .withMessage("Invalid cursor");
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.appointmentKey(encode("a:yesterday,1")));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.appointmentKey(encode("a:" + TIME)));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.doctorKey(encode("d:seven")));
+    }
+
+    @Test
+    void cursorsAreNotInterchangeable() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.appointmentKey(PageCursor.ofDoctor(7L)));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> PageCursor.doctorKey(PageCursor.ofAppointment(TIME, 42L)));
+    }
+
+    @Test
+    void limitsDefaultAndAreClamped() {
+        assertThat(PageCursor.limit(null)).isEqualTo(50);
+        assertThat(PageCursor.limit(20)).isEqualTo(20);
+        assertThat(PageCursor.limit(0)).isEqualTo(1);
+        assertThat(PageCursor.limit(-5)).isEqualTo(1);
+        assertThat(PageCursor.limit(200)).isEqualTo(200);
+        assertThat(PageCursor.limit(1000)).isEqualTo(200);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
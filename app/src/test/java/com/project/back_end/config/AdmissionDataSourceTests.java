@@ -0,0 +1,57 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class AdmissionDataSourceTests {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final PoolAdmission admission = new PoolAdmission("jdbc", 1, Duration.ofMillis(50));
+    private final AdmissionDataSource dataSource = new AdmissionDataSource(pool, admission);
+
+    @Test
+    void permitIsHeldUntilTheConnectionIsClosed() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        Connection first = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        verify(pooled).close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() throws SQLException {
+        when(pool.getConnection()).thenReturn(mock(Connection.class));
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void failedBorrowGivesThePermitBack() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"))
+                .thenReturn(mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.back_end.models.Prescription;
+
+class MongoIndexesTests {
+
+    private IndexOperations indexOps;
+    private MongoIndexes mongoIndexes;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Prescription.class)).thenReturn(indexOps);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.getPersistentEntity(Prescription.class);
+        mongoIndexes = new MongoIndexes(mongoTemplate, mappingContext);
+    }
+
+    @Test
+    void indexIsUnconfirmedUntilTheFirstAttempt() {
+        assertThat(mongoIndexes.isCreated()).isFalse();
+        assertThat(mongoIndexes.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    void failedIndexIsReportedDownUntilARetrySucceeds() {
+        when(indexOps.createIndex(any(IndexDefinition.class)))
+                .thenThrow(new DataAccessResourceFailureException("Timed out after 5000 ms"))
+                .thenReturn("appointmentId");
+
+        assertThat(attempt()).isFalse();
+        assertThat(mongoIndexes.isCreated()).isFalse();
+        assertThat(mongoIndexes.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(mongoIndexes.health().getDetails()).containsKey("missing");
+
+        assertThat(attempt()).isTrue();
+        assertThat(mongoIndexes.isCreated()).isTrue();
+        assertThat(mongoIndexes.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private boolean attempt() {
+        return ReflectionTestUtils.invokeMethod(mongoIndexes, "createIndexes");
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.back_end.SqlStatementCounter" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class RepositoryMetricsTests {
+
+    private static final String INVOCATIONS = "spring.data.repository.invocations";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void repositoryCallsAreTimedWithStoreTag() {
+        doctorRepository.existsByEmail("nobody@clinic.com");
+
+        Timer timer = meterRegistry.get(INVOCATIONS)
+                .tags("repository", "DoctorRepository", "method", "existsByEmail", "store", "jpa", "state", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isPositive();
+    }
+
+    @Test
+    void failedCallsAreCounted() {
+        assertThatThrownBy(() -> doctorRepository.findById(null)).isInstanceOf(RuntimeException.class);
+
+        double errors = meterRegistry.get(RepositoryMetricsConfig.ERRORS)
+                .tags("repository", "DoctorRepository", "method", "findById", "store", "jpa")
+                .counter().count();
+        assertThat(errors).isPositive();
+    }
+
+    @Test
+    void storeFollowsTheRepositoryType() {
+        assertThat(RepositoryMetricsConfig.storeOf(AppointmentRepository.class)).isEqualTo("jpa");
+        assertThat(RepositoryMetricsConfig.storeOf(PrescriptionRepository.class)).isEqualTo("mongo");
+    }
+
+    @Test
+    void prometheusScrapeHasHistogramBuckets() throws Exception {
+        doctorRepository.existsByEmail("nobody@clinic.com");
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape).contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("store=\"jpa\"");
+    }
+
+    @Test
+    void catalogEndpointIsReadOnlyByDefault() throws Exception {
+        mockMvc.perform(get("/actuator/doctorcatalog")).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/actuator/doctorcatalog")).andExpect(status().is4xxClientError());
+        mockMvc.perform(delete("/actuator/doctorcatalog/Cardiologist")).andExpect(status().is4xxClientError());
+    }
+}
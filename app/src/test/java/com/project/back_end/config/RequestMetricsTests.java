@@ -0,0 +1,103 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.TokenService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.back_end.SqlStatementCounter" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class RequestMetricsTests {
+
+    private static final String AVAILABILITY = "/doctor/availability/{user}/{doctorId}/{date}/{token}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Test
+    void requestsAreTaggedWithRouteTemplateAndRole() throws Exception {
+        Doctor doctor = doctorRepository.save(new Doctor("Dr. Metrics", "Cardiologist", "metrics@clinic.com",
+                "secret1", "5550000000", List.of("09:00")));
+        String token = tokenService.generateToken(doctor);
+
+        mockMvc.perform(get("/doctor/availability/doctor/{id}/2030-01-07/{token}", doctor.getId(), token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/doctor")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("http.server.requests")
+                .tags("uri", AVAILABILITY, "role", "doctor", "status", "200").timer().count()).isPositive();
+        assertThat(meterRegistry.get("http.server.requests")
+                .tags("uri", "/doctor", "role", "none").timer().count()).isPositive();
+        // No tag on any request meter carries the token itself
+        for (Meter meter : meterRegistry.find("http.server.requests").meters())
+            assertThat(meter.getId().getTags()).noneMatch(tag -> tag.getValue().contains(token));
+    }
+
+    @Test
+    void authOutcomesAreCountedByReason() throws Exception {
+        String expired = Jwts.builder()
+                .subject("metrics@clinic.com")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .compact();
+        String unknownUser = tokenService.generateToken("ghost@clinic.com");
+
+        double expiredBefore = outcomes("expired");
+        double unknownBefore = outcomes("unknown_user");
+        double invalidBefore = outcomes("invalid");
+
+        mockMvc.perform(get("/doctor/availability/doctor/1/2030-01-07/{token}", expired))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/doctor/availability/doctor/1/2030-01-07/{token}", unknownUser))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/doctor/availability/doctor/1/2030-01-07/not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(outcomes("expired")).isEqualTo(expiredBefore + 1);
+        assertThat(outcomes("unknown_user")).isEqualTo(unknownBefore + 1);
+        assertThat(outcomes("invalid")).isEqualTo(invalidBefore + 1);
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.get("auth.token.validations").tags("role", "doctor", "outcome", outcome)
+                .counter().count();
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.back_end.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.DoctorSummary;
+import com.project.back_end.DTO.PageCursor;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.PatientService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Keyset pages of the doctor directory and of a patient's appointments
+ * against an in-memory database: default and clamped page sizes, cursors
+ * that resume where the previous page stopped, and bad cursors answered with
+ * 400.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@AutoConfigureMockMvc
+@Transactional
+class PagingTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    void doctorPagesDefaultTo50AndAreClampedTo200() {
+        for (int i = 1; i <= PageCursor.MAX_LIMIT + 1; i++)
+            entityManager.persist(new Doctor("Dr. Page " + i, "Cardiologist", "page" + i + "@clinic.com", "secret1",
+                    "5550000000", List.of("09:00")));
+        entityManager.flush();
+
+        assertThat(doctors(doctorService.getDoctorPage(null, null))).hasSize(PageCursor.DEFAULT_LIMIT);
+        Map<String, Object> clamped = doctorService.getDoctorPage(null, 1000);
+        assertThat(doctors(clamped)).hasSize(PageCursor.MAX_LIMIT);
+        assertThat(clamped.get("nextCursor")).isNotNull();
+    }
+
+    @Test
+    void doctorPagesResumeAfterTheCursorUntilTheLastPage() {
+        for (int i = 1; i <= 5; i++)
+            entityManager.persist(new Doctor("Dr. Walk " + i, "Cardiologist", "walk" + i + "@clinic.com", "secret1",
+                    "5550000000", List.of("09:00")));
+        entityManager.flush();
+        long total = entityManager.createQuery("SELECT COUNT(d) FROM Doctor d", Long.class).getSingleResult();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Map<String, Object> page = doctorService.getDoctorPage(cursor, 2);
+            doctors(page).forEach(doctor -> seen.add(doctor.id()));
+            cursor = (String) page.get("nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize((int) total).doesNotHaveDuplicates().isSorted();
+        assertThat(pages).isEqualTo((int) (total + 1) / 2);
+    }
+
+    @Test
+    void badDoctorCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/doctor").param("after", "bogus").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    void appointmentsAtTheSameTimeAreOrderedByIdAcrossPages() {
+        Patient patient = new Patient("Jane Roe", "jane.tie@mail.com", "secret1", "5551111111", "1 Main Street");
+        entityManager.persist(patient);
+        LocalDateTime time = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        // A doctor has one appointment per slot, so ties are with different doctors
+        List<Long> ids = new ArrayList<>();
+        Doctor doctor = null;
+        for (int i = 1; i <= 3; i++) {
+            doctor = new Doctor("Dr. Tie " + i, "Cardiologist", "tie" + i + "@clinic.com", "secret1", "5550000000",
+                    List.of("09:00"));
+            entityManager.persist(doctor);
+            Appointment appointment = new Appointment(doctor, patient, time, 0);
+            entityManager.persist(appointment);
+            ids.add(appointment.getId());
+        }
+        Appointment later = new Appointment(doctor, patient, time.plusHours(1), 0);
+        entityManager.persist(later);
+        entityManager.flush();
+
+        Map<String, Object> first = page(patientService.getAppointmentPage(patient.getId(), null, null, null, 2));
+        String cursor = (String) first.get("nextCursor");
+        assertThat(appointmentIds(first)).containsExactly(ids.get(0), ids.get(1));
+        assertThat(PageCursor.appointmentKey(cursor)).isEqualTo(new PageCursor.AppointmentKey(time, ids.get(1)));
+
+        Map<String, Object> second = page(patientService.getAppointmentPage(patient.getId(), null, null, cursor, 2));
+        assertThat(appointmentIds(second)).containsExactly(ids.get(2), later.getId());
+        assertThat(second.get("nextCursor")).isNull();
+    }
+
+    @Test
+    void badAppointmentCursorIsABadRequest() {
+        ResponseEntity<Map<String, Object>> response = patientService.getAppointmentPage(1L, null, null,
+                PageCursor.ofDoctor(1L), null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).containsEntry("error", "Invalid cursor");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DoctorSummary> doctors(Map<String, Object> page) {
+        return (List<DoctorSummary>) page.get("doctors");
+    }
+
+    private static Map<String, Object> page(ResponseEntity<Map<String, Object>> response) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> appointmentIds(Map<String, Object> page) {
+        return ((List<AppointmentDTO>) page.get("appointments")).stream().map(AppointmentDTO::getId).toList();
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.back_end.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.SqlStatementCounter;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorCatalog;
+import com.project.back_end.services.NdjsonStreamer;
+
+/**
+ * Doctor listing endpoints against an in-memory database, each held to a
+ * fixed number of SQL statements however many doctors there are. A lazy
+ * collection loaded per doctor (N+1) blows the budget. Revalidating an
+ * unchanged listing costs none.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.back_end.SqlStatementCounter" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@AutoConfigureMockMvc
+class QueryBudgetTests {
+
+    private static final int DOCTORS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorCatalog doctorCatalog;
+
+    @BeforeEach
+    void seed() {
+        if (doctorRepository.count() == 0) {
+            List<Doctor> doctors = new ArrayList<>();
+            for (int i = 1; i <= DOCTORS; i++) {
+                String specialty = i % 2 == 0 ? "Cardiologist" : "Dermatologist";
+                doctors.add(new Doctor("Dr. Budget " + i, specialty, "budget" + i + "@clinic.com", "secret1",
+                        "5550000000", List.of("09:00", "14:00")));
+            }
+            doctorRepository.saveAll(doctors);
+        }
+        // Budgets are for cold caches
+        doctorCatalog.invalidateAll();
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void listingAllDoctorsIsOneQuery() throws Exception {
+        mockMvc.perform(get("/doctor").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+        assertBudget(1);
+    }
+
+    @Test
+    void doctorPageIsIdsThenOneProjection() throws Exception {
+        mockMvc.perform(get("/doctor").param("limit", "30").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // The page's doctor ids, then one directory-rows projection (available
+        // times included) for those ids
+        assertBudget(2, "ids query + directory-rows projection");
+    }
+
+    @Test
+    void filterByNameTimeAndSpecialtyStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/doctor/filter/budget/PM/Cardiologist")).andExpect(status().isOk());
+
+        // Search index build (first use only) and the catalog segment
+        assertBudget(2);
+    }
+
+    @Test
+    void streamingAllDoctorsIsOneQuery() throws Exception {
+        MvcResult started = mockMvc.perform(get("/doctor").accept(NdjsonStreamer.NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(DOCTORS)
+                .allMatch(line -> line.startsWith("{") && line.endsWith("}"), "one bare JSON object per line")
+                .allMatch(line -> line.contains("\"availableTimes\":[\"09:00\",\"14:00\"]"));
+        assertBudget(1);
+
+        // Same representation as the JSON listing of the URL
+        String listing = mockMvc.perform(get("/doctor").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        ObjectMapper json = new ObjectMapper();
+        List<Object> streamed = new ArrayList<>();
+        for (String line : body.lines().toList())
+            streamed.add(json.readValue(line, Map.class));
+        assertThat(streamed).isEqualTo(json.readValue(listing, Map.class).get("doctors"));
+    }
+
+    @Test
+    void unchangedListingIsRevalidatedWithoutQueries() throws Exception {
+        String etag = mockMvc.perform(get("/doctor/filter/budget/PM/Cardiologist"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/doctor/filter/budget/PM/Cardiologist").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/doctor").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertBudget(0);
+
+        // Any doctor write moves the version
+        doctorCatalog.invalidate("Cardiologist");
+        mockMvc.perform(get("/doctor").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private static void assertBudget(int budget) {
+        assertBudget(budget, "budget " + budget);
+    }
+
+    private static void assertBudget(int budget, String expected) {
+        List<String> statements = SqlStatementCounter.statements();
+        assertThat(statements)
+                .as("SQL statements issued (%s)", expected)
+                .hasSizeLessThanOrEqualTo(budget);
+    }
+}
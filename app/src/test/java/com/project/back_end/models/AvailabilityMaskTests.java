@@ -0,0 +1,62 @@
+package com.project.back_end.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AvailabilityMaskTests {
+
+    @Test
+    void slotsAreHalfHoursFromMidnight() {
+        assertThat(AvailabilityMask.slotOf(LocalTime.MIDNIGHT)).isZero();
+        assertThat(AvailabilityMask.slotOf(LocalTime.of(9, 0))).isEqualTo(18);
+        assertThat(AvailabilityMask.slotOf(LocalTime.of(9, 29))).isEqualTo(18);
+        assertThat(AvailabilityMask.slotOf(LocalTime.of(11, 30))).isEqualTo(23);
+        assertThat(AvailabilityMask.slotOf(LocalTime.NOON)).isEqualTo(24);
+        assertThat(AvailabilityMask.slotOf(LocalTime.of(23, 30))).isEqualTo(AvailabilityMask.SLOTS_PER_DAY - 1);
+    }
+
+    @Test
+    void labelsAreReadByTheirStartTime() {
+        assertThat(AvailabilityMask.slotOf("09:00")).isEqualTo(18);
+        assertThat(AvailabilityMask.slotOf("09:00-10:00")).isEqualTo(18);
+        assertThat(AvailabilityMask.slotOf(" 14:30 - 15:00")).isEqualTo(29);
+        assertThat(AvailabilityMask.slotOf("morning")).isEqualTo(-1);
+        assertThat(AvailabilityMask.of(List.of("09:00-10:00", "14:30", "morning"))).isEqualTo((1L << 18) | (1L << 29));
+        assertThat(AvailabilityMask.of(null)).isZero();
+    }
+
+    @Test
+    void noonSplitsTheDayAtTheBoundarySlots() {
+        assertThat(AvailabilityMask.AM & AvailabilityMask.PM).isZero();
+        assertThat(AvailabilityMask.AM | AvailabilityMask.PM).isEqualTo((1L << AvailabilityMask.SLOTS_PER_DAY) - 1);
+
+        assertThat(AvailabilityMask.forFilter("11:30") & AvailabilityMask.AM).isNotZero();
+        assertThat(AvailabilityMask.forFilter("11:30") & AvailabilityMask.PM).isZero();
+        assertThat(AvailabilityMask.forFilter("12:00") & AvailabilityMask.PM).isNotZero();
+        assertThat(AvailabilityMask.forFilter("12:00") & AvailabilityMask.AM).isZero();
+        assertThat(AvailabilityMask.forFilter("23:30")).isEqualTo(1L << 47);
+        assertThat(AvailabilityMask.forFilter("23:30") & AvailabilityMask.PM).isNotZero();
+    }
+
+    @Test
+    void filtersAreAmPmOrASingleSlot() {
+        assertThat(AvailabilityMask.forFilter("AM")).isEqualTo(AvailabilityMask.AM);
+        assertThat(AvailabilityMask.forFilter("am")).isEqualTo(AvailabilityMask.AM);
+        assertThat(AvailabilityMask.forFilter("PM")).isEqualTo(AvailabilityMask.PM);
+        assertThat(AvailabilityMask.forFilter("14:30")).isEqualTo(1L << 29);
+        // Anything else reads as PM, as the string comparison did
+        assertThat(AvailabilityMask.forFilter("evening")).isEqualTo(AvailabilityMask.PM);
+    }
+
+    @Test
+    void onlyExactHalfHoursStartASlot() {
+        assertThat(AvailabilityMask.isSlotStart(LocalTime.of(11, 30))).isTrue();
+        assertThat(AvailabilityMask.isSlotStart(LocalTime.NOON)).isTrue();
+        assertThat(AvailabilityMask.isSlotStart(LocalTime.of(9, 15))).isFalse();
+        assertThat(AvailabilityMask.isSlotStart(LocalTime.of(9, 0, 1))).isFalse();
+    }
+}
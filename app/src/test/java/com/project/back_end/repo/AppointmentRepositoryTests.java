@@ -0,0 +1,130 @@
+package com.project.back_end.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * The past/future appointment queries against an in-memory database: the time
+ * cut, the optional doctor name and status, and the database-side sort and
+ * limit. Also the count behind a bulk status change's "matched".
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class AppointmentRepositoryTests {
+
+    private static final Sort BY_TIME = Sort.by("appointmentTime", "id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private Doctor smith;
+    private Patient patient;
+    private Appointment lastWeek;
+    private Appointment yesterday;
+    private Appointment tomorrow;
+    private Appointment nextWeek;
+
+    @BeforeEach
+    void seed() {
+        smith = persist(doctor("Dr. Smith", "smith@clinic.com"));
+        Doctor jones = persist(doctor("Dr. Jones", "jones@clinic.com"));
+        patient = persist(new Patient("Jane Roe", "jane@mail.com", "secret1", "5551111111", "1 Main Street"));
+        Patient other = persist(new Patient("John Doe", "john@mail.com", "secret1", "5552222222",
+                "2 Main Street"));
+
+        lastWeek = persist(new Appointment(smith, patient, now.plusDays(1), 2));
+        yesterday = persist(new Appointment(jones, patient, now.plusDays(2), 2));
+        tomorrow = persist(new Appointment(smith, patient, now.plusDays(1).plusHours(1), 3));
+        nextWeek = persist(new Appointment(jones, patient, now.plusDays(7), 0));
+        persist(new Appointment(smith, other, now.plusDays(3), 0));
+        entityManager.flush();
+        // Appointments must be booked in the future; move two into the past
+        // behind validation's back
+        moveTo(lastWeek, now.minusDays(7));
+        moveTo(yesterday, now.minusDays(1));
+        entityManager.clear();
+    }
+
+    @Test
+    void pastAndFutureAreSplitAtTheGivenTimeInTimeOrder() {
+        assertThat(ids(appointmentRepository.findDtosBefore(patient.getId(), now, null, null, BY_TIME,
+                Limit.unlimited()))).containsExactly(lastWeek.getId(), yesterday.getId());
+        assertThat(ids(appointmentRepository.findDtosAfter(patient.getId(), now, null, null, BY_TIME,
+                Limit.unlimited()))).containsExactly(tomorrow.getId(), nextWeek.getId());
+    }
+
+    @Test
+    void doctorNameAndStatusNarrowTheRange() {
+        assertThat(ids(appointmentRepository.findDtosBefore(patient.getId(), now, "jones", null, BY_TIME,
+                Limit.unlimited()))).containsExactly(yesterday.getId());
+        assertThat(ids(appointmentRepository.findDtosAfter(patient.getId(), now, null, 0, BY_TIME,
+                Limit.unlimited()))).containsExactly(nextWeek.getId());
+    }
+
+    @Test
+    void limitAndDescendingSortPickTheNearestAppointment() {
+        List<AppointmentDTO> next = appointmentRepository.findDtosAfter(patient.getId(), now, null, null, BY_TIME,
+                Limit.of(1));
+        List<AppointmentDTO> latest = appointmentRepository.findDtosBefore(patient.getId(), now, null, null,
+                BY_TIME.descending(), Limit.of(1));
+
+        assertThat(ids(next)).containsExactly(tomorrow.getId());
+        assertThat(ids(latest)).containsExactly(yesterday.getId());
+        assertThat(latest.get(0).getDoctorName()).isEqualTo("Dr. Jones");
+    }
+
+    @Test
+    void countInSkipsOtherDoctorsAndMissingIds() {
+        List<Long> ids = List.of(lastWeek.getId(), yesterday.getId(), tomorrow.getId(), Long.MAX_VALUE);
+
+        assertThat(appointmentRepository.countIn(ids, smith.getId())).isEqualTo(2);
+        assertThat(appointmentRepository.countIn(ids, null)).isEqualTo(3);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private void moveTo(Appointment appointment, LocalDateTime time) {
+        entityManager.createQuery("UPDATE Appointment a SET a.appointmentTime = :time WHERE a.id = :id")
+                .setParameter("time", time)
+                .setParameter("id", appointment.getId())
+                .executeUpdate();
+    }
+
+    private static Doctor doctor(String name, String email) {
+        return new Doctor(name, "Cardiologist", email, "secret1", "5550000000", List.of("09:00"));
+    }
+
+    private static List<Long> ids(List<AppointmentDTO> appointments) {
+        return appointments.stream().map(AppointmentDTO::getId).toList();
+    }
+}
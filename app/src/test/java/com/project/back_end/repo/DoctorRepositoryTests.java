@@ -0,0 +1,85 @@
+package com.project.back_end.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.AvailabilityMask;
+import com.project.back_end.models.Doctor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * The availability-mask query against an in-memory database: the bitwise
+ * predicate for AM, PM and single-slot filters, including the slots either
+ * side of noon and the last slot of the day.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "mongo.indexes.enabled=false",
+        "appointment.status-outbox.enabled=false" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional
+class DoctorRepositoryTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Doctor morning;
+    private Doctor afternoon;
+    private Doctor noon;
+    private Doctor lateNight;
+
+    @BeforeEach
+    void seed() {
+        morning = persist(doctor("Dr. Morning", List.of("09:00-10:00", "10:00-11:00")));
+        afternoon = persist(doctor("Dr. Afternoon", List.of("14:00-15:00")));
+        noon = persist(doctor("Dr. Noon", List.of("11:30", "12:00")));
+        lateNight = persist(doctor("Dr. Late", List.of("23:30")));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void amAndPmMatchDoctorsWithAnySlotInTheHalfDay() {
+        assertThat(available("AM")).containsExactly(morning.getId(), noon.getId());
+        assertThat(available("PM")).containsExactly(afternoon.getId(), noon.getId(), lateNight.getId());
+    }
+
+    @Test
+    void aTimeMatchesOnlyDoctorsOfferingThatSlot() {
+        assertThat(available("09:00")).containsExactly(morning.getId());
+        assertThat(available("11:30")).containsExactly(noon.getId());
+        assertThat(available("12:00")).containsExactly(noon.getId());
+        assertThat(available("23:30")).containsExactly(lateNight.getId());
+        assertThat(available("08:00")).isEmpty();
+    }
+
+    private List<Long> available(String filter) {
+        List<Long> seeded = List.of(morning.getId(), afternoon.getId(), noon.getId(), lateNight.getId());
+        return doctorRepository.findIdsAvailableIn(AvailabilityMask.forFilter(filter)).stream()
+                .filter(seeded::contains)
+                .toList();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private static Doctor doctor(String name, List<String> availableTimes) {
+        return new Doctor(name, "Cardiologist", name.substring(4).toLowerCase() + "@clinic.com", "secret1",
+                "5550000000", availableTimes);
+    }
+}
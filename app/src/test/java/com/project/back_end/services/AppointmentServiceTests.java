@@ -0,0 +1,95 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+
+class AppointmentServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final int COMPLETED = AppointmentService.statusCode("completed");
+
+    private AppointmentRepository appointmentRepository;
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        appointmentService = new AppointmentService(appointmentRepository, mock(PatientRepository.class),
+                mock(DoctorRepository.class), mock(TokenService.class), mock(AvailabilityIndex.class),
+                mock(BookingEngine.class), mock(DoctorSchedules.class));
+        ReflectionTestUtils.setField(appointmentService, "chunkSize", 2);
+    }
+
+    @Test
+    void idsAreUpdatedInChunksAndCountsSummed() {
+        when(appointmentRepository.countIn(any(), eq(7L))).thenReturn(2, 1);
+        when(appointmentRepository.updateStatusIn(eq(COMPLETED), any(), eq(7L))).thenReturn(2, 0);
+
+        AppointmentService.StatusChange change = appointmentService.changeStatus(COMPLETED,
+                List.of(1L, 2L, 2L, 3L), 7L);
+
+        assertThat(change).isEqualTo(new AppointmentService.StatusChange(3, 2));
+        verify(appointmentRepository).countIn(List.of(1L, 2L), 7L);
+        verify(appointmentRepository).countIn(List.of(3L), 7L);
+        verify(appointmentRepository).updateStatusIn(COMPLETED, List.of(1L, 2L), 7L);
+        verify(appointmentRepository).updateStatusIn(COMPLETED, List.of(3L), 7L);
+        verifyNoMoreInteractions(appointmentRepository);
+    }
+
+    @Test
+    void idsOfOtherDoctorsOrOfNoAppointmentAreNotMatched() {
+        // 1 is this doctor's, 2 another doctor's, 3 does not exist
+        when(appointmentRepository.countIn(List.of(1L, 2L), 7L)).thenReturn(1);
+        when(appointmentRepository.countIn(List.of(3L), 7L)).thenReturn(0);
+        when(appointmentRepository.updateStatusIn(COMPLETED, List.of(1L, 2L), 7L)).thenReturn(1);
+
+        assertThat(appointmentService.changeStatus(COMPLETED, List.of(1L, 2L, 3L), 7L))
+                .isEqualTo(new AppointmentService.StatusChange(1, 1));
+    }
+
+    @Test
+    void dayIsClosedOutChunkByChunkAfterTheLastId() {
+        when(appointmentRepository.findIdsByDoctorAndStatus(eq(7L), eq(DAY.atStartOfDay()),
+                eq(DAY.plusDays(1).atStartOfDay()), eq(0), anyLong(), eq(Limit.of(2))))
+                .thenReturn(List.of(10L, 11L), List.of(12L));
+        when(appointmentRepository.updateStatusFrom(eq(COMPLETED), eq(0), any())).thenReturn(2, 1);
+
+        AppointmentService.StatusChange change = appointmentService.changeStatus(COMPLETED, 7L, DAY, DAY, 0);
+
+        assertThat(change).isEqualTo(new AppointmentService.StatusChange(3, 3));
+        verify(appointmentRepository).findIdsByDoctorAndStatus(7L, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay(), 0, 0L, Limit.of(2));
+        verify(appointmentRepository).findIdsByDoctorAndStatus(7L, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay(), 0, 11L, Limit.of(2));
+        verify(appointmentRepository).updateStatusFrom(COMPLETED, 0, List.of(10L, 11L));
+        verify(appointmentRepository).updateStatusFrom(COMPLETED, 0, List.of(12L));
+        verifyNoMoreInteractions(appointmentRepository);
+    }
+
+    @Test
+    void sameStatusTouchesNothing() {
+        assertThat(appointmentService.changeStatus(COMPLETED, 7L, DAY, DAY, COMPLETED))
+                .isEqualTo(new AppointmentService.StatusChange(0, 0));
+        verify(appointmentRepository, never()).updateStatusFrom(anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AppointmentStatusOutboxTests {
+
+    private MongoTemplate mongoTemplate;
+    private AppointmentRepository appointmentRepository;
+    private DoctorSchedules doctorSchedules;
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentStatusOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        doctorSchedules = mock(DoctorSchedules.class);
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new AppointmentStatusOutbox(mongoTemplate, appointmentRepository, doctorSchedules, meterRegistry);
+        ReflectionTestUtils.setField(outbox, "batchSize", 500);
+        ReflectionTestUtils.setField(outbox, "pollInterval", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(outbox, "maxBackoff", Duration.ofSeconds(30));
+        outbox.registerMeters();
+    }
+
+    @Test
+    void pendingTransitionsAreAppliedByOneUpdateThenCleared() {
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class))).thenReturn(List.of(
+                pending("a", 10L, Duration.ofSeconds(3)),
+                pending("b", 11L, Duration.ofSeconds(2)),
+                pending("c", 12L, Duration.ofSeconds(1))));
+
+        assertThat(outbox.relay()).isEqualTo(3);
+
+        verify(appointmentRepository).advanceStatus(1, Set.of(10L, 11L, 12L));
+        verify(doctorSchedules).evictAppointments(Set.of(10L, 11L, 12L));
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(new Update().unset("statusPendingSince")),
+                eq(Prescription.class));
+        assertThat(meterRegistry.get("appointments.status.outbox.lag").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("appointments.status.outbox.oldest").gauge().value()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void failedUpdateLeavesTransitionsPendingForTheRetry() {
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class)))
+                .thenReturn(List.of(pending("a", 10L, Duration.ofSeconds(1))));
+        when(appointmentRepository.advanceStatus(anyInt(), anyCollection()))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        assertThatThrownBy(outbox::relay).isInstanceOf(QueryTimeoutException.class);
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Prescription.class));
+    }
+
+    @Test
+    void nothingPendingIsNoUpdate() {
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class))).thenReturn(List.of());
+
+        assertThat(outbox.relay()).isZero();
+
+        verify(appointmentRepository, never()).advanceStatus(anyInt(), anyCollection());
+    }
+
+    private static Prescription pending(String id, long appointmentId, Duration age) {
+        Prescription prescription = new Prescription("Jane Roe", appointmentId, "Amoxicillin", "500mg", null);
+        prescription.setId(id);
+        prescription.setStatusPendingSince(Instant.now().minus(age));
+        return prescription;
+    }
+}
@@ -0,0 +1,225 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookingEngineTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+    private static final LocalDateTime SLOT = DAY.atTime(10, 0);
+
+    private AppointmentRepository appointmentRepository;
+    private AvailabilityIndex availabilityIndex;
+    private BookingEngine bookingEngine;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new Doctor("Dr. House", "Diagnostics", "house@clinic.com", "secret1", "5550000000",
+                new ArrayList<>(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00")));
+        doctor.setId(1L);
+
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.findById(2L)).thenReturn(Optional.empty());
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(anyLong(), any(), any()))
+                .thenReturn(List.of());
+        when(appointmentRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        availabilityIndex = new AvailabilityIndex(doctorRepository, appointmentRepository, transactionManager,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(availabilityIndex, "maxEntries", 1000L);
+        ReflectionTestUtils.setField(availabilityIndex, "expireAfterAccess", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(availabilityIndex, "init");
+
+        bookingEngine = new BookingEngine(appointmentRepository, availabilityIndex, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    private Appointment appointment(long patientId, LocalDateTime time) {
+        Patient patient = new Patient("Patient " + patientId, "p" + patientId + "@mail.com", "secret1",
+                "5551111111", "1 Main Street");
+        patient.setId(patientId);
+        return new Appointment(doctor, patient, time, 0);
+    }
+
+    @Test
+    void concurrentBookersOfOneSlotGetExactlyOneBooking() throws Exception {
+        int bookers = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingEngine.Result>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < bookers; i++) {
+                Appointment appointment = appointment(i + 1, SLOT);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return bookingEngine.book(appointment);
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            int conflicts = 0;
+            for (Future<BookingEngine.Result> result : results) {
+                switch (result.get()) {
+                    case BOOKED -> booked++;
+                    case CONFLICT -> conflicts++;
+                    default -> throw new AssertionError("unexpected " + result.get());
+                }
+            }
+            assertThat(booked).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(bookers - 1);
+            verify(appointmentRepository, times(1)).saveAndFlush(any());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void availabilityVersionMovesOnlyWhenTheDayChanges() {
+        long before = availabilityIndex.version(1L, DAY);
+        availabilityIndex.availableTimes(1L, DAY);
+        assertThat(availabilityIndex.version(1L, DAY)).isEqualTo(before);
+
+        assertThat(bookingEngine.book(appointment(1, SLOT))).isEqualTo(BookingEngine.Result.BOOKED);
+        assertThat(availabilityIndex.version(1L, DAY)).isNotEqualTo(before);
+    }
+
+    @Test
+    void slotsThatAreNotOfferedAreConflicts() {
+        assertThat(bookingEngine.book(appointment(1, DAY.atTime(15, 0))))
+                .isEqualTo(BookingEngine.Result.CONFLICT);
+    }
+
+    @Test
+    void timesBetweenSlotStartsAreInvalid() {
+        assertThat(bookingEngine.book(appointment(1, DAY.atTime(10, 15)))).isEqualTo(BookingEngine.Result.INVALID);
+        assertThat(bookingEngine.book(appointment(2, DAY.atTime(10, 0, 30)))).isEqualTo(BookingEngine.Result.INVALID);
+        assertThat(bookingEngine.bookAll(List.of(appointment(3, DAY.atTime(9, 45)))))
+                .containsExactly(BookingEngine.Result.INVALID);
+        // Nothing was reserved, so the slot itself is still free
+        assertThat(bookingEngine.book(appointment(4, SLOT))).isEqualTo(BookingEngine.Result.BOOKED);
+        assertThat(bookingEngine.reschedule(appointment(4, SLOT), DAY.atTime(11, 15), null))
+                .isEqualTo(BookingEngine.Result.INVALID);
+        verify(appointmentRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void unknownDoctorIsReported() {
+        doctor.setId(2L);
+        assertThat(bookingEngine.book(appointment(1, SLOT))).isEqualTo(BookingEngine.Result.UNKNOWN_DOCTOR);
+    }
+
+    @Test
+    void uniqueConstraintViolationIsAConflict() {
+        when(appointmentRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_appointment_doctor_time"));
+
+        assertThat(bookingEngine.book(appointment(1, SLOT))).isEqualTo(BookingEngine.Result.CONFLICT);
+        // The day is rebuilt from the table on the next access
+        assertThat(availabilityIndex.check(1L, SLOT)).isEqualTo(AvailabilityIndex.SlotState.AVAILABLE);
+        verify(appointmentRepository, times(2))
+                .findByDoctorIdAndAppointmentTimeBetween(eq(1L), any(), any());
+    }
+
+    @Test
+    void otherIntegrityViolationIsInvalidAndKeepsTheDay() {
+        when(appointmentRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("FK_APPOINTMENT_PATIENT: no parent row"))
+                .thenAnswer(call -> call.getArgument(0));
+
+        assertThat(bookingEngine.book(appointment(99, SLOT))).isEqualTo(BookingEngine.Result.INVALID);
+        assertThat(bookingEngine.book(appointment(2, SLOT))).isEqualTo(BookingEngine.Result.BOOKED);
+        // The cached day was neither evicted nor left holding the failed reservation
+        verify(appointmentRepository, times(1))
+                .findByDoctorIdAndAppointmentTimeBetween(eq(1L), any(), any());
+    }
+
+    @Test
+    void failedInsertReleasesTheReservation() {
+        when(appointmentRepository.saveAndFlush(any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenAnswer(call -> call.getArgument(0));
+
+        assertThat(bookingEngine.book(appointment(1, SLOT))).isEqualTo(BookingEngine.Result.FAILED);
+        assertThat(bookingEngine.book(appointment(2, SLOT))).isEqualTo(BookingEngine.Result.BOOKED);
+    }
+
+    @Test
+    void rescheduleClaimsTheNewSlotAndFreesTheOldOne() {
+        Appointment moving = appointment(1, DAY.atTime(9, 0));
+        assertThat(bookingEngine.book(moving)).isEqualTo(BookingEngine.Result.BOOKED);
+        assertThat(bookingEngine.book(appointment(2, SLOT))).isEqualTo(BookingEngine.Result.BOOKED);
+
+        assertThat(bookingEngine.reschedule(moving, SLOT, null)).isEqualTo(BookingEngine.Result.CONFLICT);
+        assertThat(moving.getAppointmentTime()).isEqualTo(DAY.atTime(9, 0));
+
+        assertThat(bookingEngine.reschedule(moving, DAY.atTime(11, 0), 0)).isEqualTo(BookingEngine.Result.BOOKED);
+        assertThat(availabilityIndex.check(1L, DAY.atTime(9, 0))).isEqualTo(AvailabilityIndex.SlotState.AVAILABLE);
+        assertThat(availabilityIndex.check(1L, DAY.atTime(11, 0)))
+                .isEqualTo(AvailabilityIndex.SlotState.UNAVAILABLE);
+    }
+
+    @Test
+    void rescheduleLostToAnotherInstanceIsAConflictAndKeepsTheOldSlot() {
+        Appointment moving = appointment(1, DAY.atTime(9, 0));
+        assertThat(bookingEngine.book(moving)).isEqualTo(BookingEngine.Result.BOOKED);
+        when(appointmentRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_appointment_doctor_time"));
+
+        assertThat(bookingEngine.reschedule(moving, SLOT, null)).isEqualTo(BookingEngine.Result.CONFLICT);
+        // Rebuilt from the table, which still holds the appointment at 09:00
+        when(appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(eq(1L), any(), any()))
+                .thenReturn(List.of(appointment(1, DAY.atTime(9, 0))));
+        assertThat(availabilityIndex.check(1L, DAY.atTime(9, 0)))
+                .isEqualTo(AvailabilityIndex.SlotState.UNAVAILABLE);
+    }
+
+    @Test
+    void batchReportsEachItemAndInsertsWinnersTogether() {
+        List<BookingEngine.Result> results = bookingEngine.bookAll(List.of(
+                appointment(1, DAY.atTime(9, 0)),
+                appointment(2, DAY.atTime(9, 0)),
+                appointment(3, DAY.atTime(11, 0)),
+                appointment(4, DAY.atTime(18, 0))));
+
+        assertThat(results).containsExactly(BookingEngine.Result.BOOKED, BookingEngine.Result.CONFLICT,
+                BookingEngine.Result.BOOKED, BookingEngine.Result.CONFLICT);
+        verify(appointmentRepository, times(1)).saveAll(any());
+        verify(appointmentRepository, times(0)).saveAndFlush(any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DoctorSchedulesTests {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private AppointmentRepository appointmentRepository;
+    private DoctorSchedules schedules;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = new Doctor("Dr. House", "Diagnostics", "house@clinic.com", "secret1", "5550000000",
+                List.of("09:00", "10:00"));
+        doctor.setId(1L);
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findScheduleByDoctorId(eq(1L), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.findScheduleByDoctorId(1L, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        appointment(10L, doctor, "Jane Roe", 9),
+                        appointment(11L, doctor, "John Doe", 10)));
+
+        schedules = new DoctorSchedules(appointmentRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(schedules, "maxDays", 100L);
+        ReflectionTestUtils.setField(schedules, "expireAfterWrite", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(schedules, "init");
+    }
+
+    @Test
+    void patientSearchesAreAnsweredFromTheCachedDay() {
+        assertThat(schedules.day(1L, DAY, null)).extracting(AppointmentDTO::getId).isEqualTo(List.of(10L, 11L));
+        assertThat(schedules.day(1L, DAY, "jane")).extracting(AppointmentDTO::getId).isEqualTo(List.of(10L));
+        assertThat(schedules.day(1L, DAY, "DOE")).extracting(AppointmentDTO::getId).isEqualTo(List.of(11L));
+
+        verify(appointmentRepository).findScheduleByDoctorId(1L, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void onlyTheDaysHoldingChangedAppointmentsAreReloaded() {
+        schedules.day(1L, DAY, null);
+        schedules.day(1L, DAY.plusDays(1), null);
+
+        schedules.evictAppointments(List.of(11L));
+        schedules.day(1L, DAY.plusDays(1), null);
+        schedules.day(1L, DAY, null);
+
+        verify(appointmentRepository, times(2)).findScheduleByDoctorId(1L, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay());
+        verify(appointmentRepository).findScheduleByDoctorId(1L, DAY.plusDays(1).atStartOfDay(),
+                DAY.plusDays(2).atStartOfDay());
+    }
+
+    @Test
+    void reloadedDayCanBeEvictedByAppointmentAgain() {
+        schedules.day(1L, DAY, null);
+        schedules.evictAppointments(List.of(10L));
+        schedules.day(1L, DAY, null);
+        schedules.evictAppointments(List.of(10L));
+        schedules.day(1L, DAY, null);
+
+        verify(appointmentRepository, times(3)).findScheduleByDoctorId(1L, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void evictedDayIsReadAgain() {
+        schedules.day(1L, DAY, null);
+        schedules.evictDay(1L, DAY);
+        schedules.day(1L, DAY, "jane");
+
+        verify(appointmentRepository, times(2)).findScheduleByDoctorId(1L, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay());
+    }
+
+    private static AppointmentDTO appointment(long id, Doctor doctor, String patientName, int hour) {
+        Patient patient = new Patient(patientName, patientName.replace(' ', '.') + "@mail.com", "secret1",
+                "5551234567", "1 Main St");
+        patient.setId(id + 100);
+        Appointment appointment = new Appointment(doctor, patient, DAY.atTime(hour, 0), 0);
+        appointment.setId(id);
+        return new AppointmentDTO(appointment);
+    }
+}
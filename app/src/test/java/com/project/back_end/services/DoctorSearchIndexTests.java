@@ -0,0 +1,152 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorRepository.SearchRow;
+
+class DoctorSearchIndexTests {
+
+    private DoctorRepository doctorRepository;
+    private DoctorSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findSearchRows()).thenReturn(List.of(
+                row(1L, "Dr. Abcxbcd", "Cardiology"),
+                row(2L, "Dr. Abcd Smith", "Dermatology"),
+                row(3L, "Dr. Jo", "cardiology"),
+                row(4L, "Dr. Bob Abc", "Neurology")));
+        index = new DoctorSearchIndex(doctorRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void trigramsMatchedOutOfOrderAreConfirmedAgainstTheName() {
+        // "abcxbcd" holds both "abc" and "bcd" but not "abcd"
+        assertThat(index.search("ABCD", null)).containsExactly(2L);
+        assertThat(index.search("bcd", null)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void needlesShorterThanATrigramAreMatchedByContains() {
+        assertThat(index.search("jo", null)).containsExactly(3L);
+        assertThat(index.search("B", null)).containsExactly(1L, 2L, 4L);
+        assertThat(index.search("", null)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void specialtyOnlySearchesMatchTheWholeSpecialtyIgnoringCase() {
+        assertThat(index.search(null, "CARDIOLOGY")).containsExactly(1L, 3L);
+        assertThat(index.search(null, "cardio")).isEmpty();
+        assertThat(index.search(null, null)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void nameOnlyAndCombinedSearches() {
+        assertThat(index.search("abc", null)).containsExactly(1L, 2L, 4L);
+        assertThat(index.search("abc", "neurology")).containsExactly(4L);
+        assertThat(index.search("smith", "cardiology")).isEmpty();
+        verify(doctorRepository, times(1)).findSearchRows();
+    }
+
+    @Test
+    void savesAndDeletesApplyOnlyOnceCommitted() {
+        index.search(null, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        Doctor renamed = doctor(2L, "Dr. Zed", "Dermatology");
+        index.onSaved(renamed);
+        index.onDeleted(4L);
+        assertThat(index.search("smith", null)).containsExactly(2L);
+        assertThat(index.search("zed", null)).isEmpty();
+        assertThat(index.search(null, "neurology")).containsExactly(4L);
+
+        commit();
+        assertThat(index.search("smith", null)).isEmpty();
+        assertThat(index.search("zed", null)).containsExactly(2L);
+        assertThat(index.search(null, "neurology")).isEmpty();
+    }
+
+    @Test
+    void rolledBackSavesNeverReachTheIndex() {
+        index.search(null, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.onSaved(doctor(5L, "Dr. Rollback", "Oncology"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(index.search("rollback", null)).isEmpty();
+    }
+
+    @Test
+    void saveCommittedWhileTheIndexIsBuildingIsNotLost() throws InterruptedException {
+        ReentrantReadWriteLock lock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(index, "lock");
+        Doctor added = doctor(5L, "Dr. Late", "Oncology");
+        SearchRow existing = row(1L, "Dr. Abcxbcd", "Cardiology");
+        Thread[] saver = new Thread[1];
+        // The build reads its rows, then a save commits before the build finishes
+        when(doctorRepository.findSearchRows()).thenAnswer(invocation -> {
+            saver[0] = Thread.ofPlatform().start(() -> index.onSaved(added));
+            while (!lock.hasQueuedThread(saver[0]))
+                Thread.onSpinWait();
+            return List.of(existing);
+        });
+
+        assertThat(index.search("abcx", null)).containsExactly(1L);
+        saver[0].join();
+        assertThat(index.search("late", null)).containsExactly(5L);
+        assertThat(index.search(null, "oncology")).containsExactly(5L);
+    }
+
+    @Test
+    void changesBeforeTheFirstSearchAreLeftToTheBuild() {
+        index.onSaved(doctor(5L, "Dr. Late", "Oncology"));
+        index.onDeleted(1L);
+
+        // Not built yet: skipped, the index holds what the build reads
+        assertThat(index.search(null, null)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty) {
+        Doctor doctor = new Doctor(name, specialty, "doctor" + id + "@clinic.com", "secret1", "5550000000",
+                List.of("09:00"));
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private static SearchRow row(Long id, String name, String specialty) {
+        return new Row(id, name, specialty);
+    }
+
+    private record Row(Long getId, String getName, String getSpecialty) implements SearchRow {
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+class PatientDashboardServiceTests {
+
+    private static final String TOKEN = "token";
+
+    private PatientService patientService;
+    private AppointmentRepository appointmentRepository;
+    private PrescriptionRepository prescriptionRepository;
+    private PatientDashboardService dashboardService;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient("Jane Roe", "jane@example.com", "secret1", "5550000001", "1 Main St");
+        patient.setId(7L);
+        Doctor doctor = new Doctor("Dr. House", "Diagnostics", "house@clinic.com", "secret1", "5550000000",
+                List.of("09:00-10:00"));
+        doctor.setId(1L);
+        Appointment first = new Appointment(doctor, patient, LocalDateTime.now().plusDays(1), 0);
+        first.setId(10L);
+        Appointment second = new Appointment(doctor, patient, LocalDateTime.now().plusDays(2), 0);
+        second.setId(11L);
+
+        patientService = mock(PatientService.class);
+        when(patientService.getPatientDetails(TOKEN)).thenReturn(patient);
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findDtosByPatientId(7L))
+                .thenReturn(List.of(new AppointmentDTO(first), new AppointmentDTO(second)));
+        prescriptionRepository = mock(PrescriptionRepository.class);
+
+        dashboardService = new PatientDashboardService(patientService, appointmentRepository,
+                prescriptionRepository, new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(dashboardService, "appointmentsBudget", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(dashboardService, "prescriptionsBudget", Duration.ofMillis(200));
+    }
+
+    @Test
+    void prescriptionsComeFromOneBulkQueryKeyedByAppointment() {
+        when(prescriptionRepository.findByAppointmentIdIn(List.of(10L, 11L))).thenReturn(List.of(
+                new Prescription("Jane Roe", 11L, "Ibuprofen", "200mg", "After meals"),
+                new Prescription("Jane Roe", 10L, "Amoxicillin", "500mg", null),
+                new Prescription("Jane Roe", 10L, "Paracetamol", "1g", null)));
+
+        Map<String, Object> dashboard = dashboardService.getDashboard(TOKEN);
+
+        assertThat(dashboard.get("patient")).isSameAs(patient);
+        assertThat((List<?>) dashboard.get("appointments")).extracting(a -> ((AppointmentDTO) a).getId())
+                .containsExactly(10L, 11L);
+        Map<?, ?> prescriptions = (Map<?, ?>) dashboard.get("prescriptions");
+        assertThat(List.copyOf(prescriptions.keySet())).isEqualTo(List.of(10L, 11L));
+        assertThat((List<?>) prescriptions.get(10L)).hasSize(2);
+        assertThat((List<?>) dashboard.get("incomplete")).isEmpty();
+        verify(appointmentRepository, times(1)).findDtosByPatientId(7L);
+        verify(prescriptionRepository, times(1)).findByAppointmentIdIn(anyCollection());
+        verify(patientService, times(1)).getPatientDetails(TOKEN);
+    }
+
+    @Test
+    void outboxMarkerIsLeftOutOfTheResponse() throws Exception {
+        Prescription pending = new Prescription("Jane Roe", 10L, "Amoxicillin", "500mg", null);
+        pending.setStatusPendingSince(Instant.now());
+        when(prescriptionRepository.findByAppointmentIdIn(anyCollection())).thenReturn(List.of(pending));
+
+        Object prescriptions = dashboardService.getDashboard(TOKEN).get("prescriptions");
+
+        assertThat(new ObjectMapper().writeValueAsString(prescriptions))
+                .contains("\"medication\":\"Amoxicillin\"")
+                .doesNotContain("statusPendingSince");
+    }
+
+    @Test
+    void slowPrescriptionsAreLeftOutOnceTheirBudgetRunsOut() {
+        when(prescriptionRepository.findByAppointmentIdIn(anyCollection())).thenAnswer(call -> {
+            Thread.sleep(1000);
+            return List.of();
+        });
+
+        long started = System.nanoTime();
+        Map<String, Object> dashboard = dashboardService.getDashboard(TOKEN);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(900));
+        assertThat((List<?>) dashboard.get("appointments")).hasSize(2);
+        assertThat((Map<?, ?>) dashboard.get("prescriptions")).isEmpty();
+        assertThat(dashboard.get("incomplete")).isEqualTo(List.of("prescriptions"));
+    }
+
+    @Test
+    void unknownPatientHasNoDashboard() {
+        when(patientService.getPatientDetails("stranger")).thenReturn(null);
+
+        assertThat(dashboardService.getDashboard("stranger")).isNull();
+    }
+}
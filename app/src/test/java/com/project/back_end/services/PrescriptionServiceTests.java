@@ -0,0 +1,116 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.project.back_end.config.MongoIndexes;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.repo.PrescriptionRepository.PrescribedAppointment;
+import com.project.back_end.services.PrescriptionService.Save;
+
+class PrescriptionServiceTests {
+
+    private PrescriptionRepository prescriptionRepository;
+    private MongoIndexes mongoIndexes;
+    private PrescriptionService prescriptionService;
+    private Prescription prescription;
+
+    @BeforeEach
+    void setUp() {
+        prescriptionRepository = mock(PrescriptionRepository.class);
+        mongoIndexes = mock(MongoIndexes.class);
+        when(mongoIndexes.isCreated()).thenReturn(true);
+        prescriptionService = new PrescriptionService(prescriptionRepository, mock(PrescriptionWriteBuffer.class),
+                mock(AppointmentStatusOutbox.class), provider(mongoIndexes));
+        prescription = new Prescription("Jane Roe", 42L, "Amoxicillin", "500mg", null);
+    }
+
+    @Test
+    void saveIsOneInsert() {
+        when(prescriptionRepository.insert(any(Prescription.class))).thenAnswer(call -> call.getArgument(0));
+
+        assertThat(prescriptionService.savePrescription(prescription)).isEqualTo(Save.SAVED);
+        verify(prescriptionRepository).insert(prescription);
+        verifyNoMoreInteractions(prescriptionRepository);
+    }
+
+    @Test
+    void secondPrescriptionForAnAppointmentIsRejectedByTheIndex() {
+        when(prescriptionRepository.insert(any(Prescription.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThat(prescriptionService.savePrescription(prescription)).isEqualTo(Save.DUPLICATE);
+        verify(prescriptionRepository).insert(prescription);
+        verifyNoMoreInteractions(prescriptionRepository);
+    }
+
+    @Test
+    void saveLooksForAStoredOneUntilTheIndexIsCreated() {
+        when(mongoIndexes.isCreated()).thenReturn(false);
+        when(prescriptionRepository.existsByAppointmentId(42L)).thenReturn(true);
+
+        assertThat(prescriptionService.savePrescription(prescription)).isEqualTo(Save.DUPLICATE);
+        verify(prescriptionRepository).existsByAppointmentId(42L);
+        verifyNoMoreInteractions(prescriptionRepository);
+    }
+
+    @Test
+    void saveWithoutIndexCreationLooksForAStoredOne() {
+        when(prescriptionRepository.insert(any(Prescription.class))).thenAnswer(call -> call.getArgument(0));
+        prescriptionService = new PrescriptionService(prescriptionRepository, mock(PrescriptionWriteBuffer.class),
+                mock(AppointmentStatusOutbox.class), provider(null));
+
+        assertThat(prescriptionService.savePrescription(prescription)).isEqualTo(Save.SAVED);
+        verify(prescriptionRepository).existsByAppointmentId(42L);
+        verify(prescriptionRepository).insert(prescription);
+    }
+
+    @Test
+    void bufferedSaveIsRefusedWhenOneIsAlreadyStored() {
+        PrescriptionWriteBuffer writeBuffer = mock(PrescriptionWriteBuffer.class);
+        when(writeBuffer.isEnabled()).thenReturn(true);
+        when(prescriptionRepository.existsByAppointmentId(42L)).thenReturn(true);
+        prescriptionService = new PrescriptionService(prescriptionRepository, writeBuffer,
+                mock(AppointmentStatusOutbox.class), provider(mongoIndexes));
+
+        assertThat(prescriptionService.savePrescription(prescription)).isEqualTo(Save.DUPLICATE);
+        verify(writeBuffer, never()).offer(any(Prescription.class));
+        verify(prescriptionRepository).existsByAppointmentId(42L);
+        verifyNoMoreInteractions(prescriptionRepository);
+    }
+
+    @Test
+    void existenceLookupAnswersForEveryRequestedAppointment() {
+        Set<Long> ids = Set.of(41L, 42L, 43L);
+        PrescribedAppointment row = () -> 42L;
+        when(prescriptionRepository.findPrescribedAmong(ids)).thenReturn(List.of(row));
+
+        assertThat(prescriptionService.getPrescribed(ids)).isEqualTo(Map.of(41L, false, 42L, true, 43L, false));
+        verify(prescriptionRepository).findPrescribedAmong(ids);
+        verifyNoMoreInteractions(prescriptionRepository);
+    }
+
+    private static ObjectProvider<MongoIndexes> provider(MongoIndexes mongoIndexes) {
+        return new ObjectProvider<>() {
+            @Override
+            public MongoIndexes getIfAvailable() {
+                return mongoIndexes;
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.PrescriptionWriteBuffer.Offer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PrescriptionWriteBufferTests {
+
+    @TempDir
+    Path directory;
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private Path journal;
+    private List<List<Long>> inserted;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Prescription.class)).thenReturn(bulkOperations);
+        inserted = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(call -> {
+            List<Prescription> batch = call.getArgument(0);
+            inserted.add(batch.stream().map(Prescription::getAppointmentId).toList());
+            return bulkOperations;
+        });
+        journal = directory.resolve("journal.ndjson");
+    }
+
+    @Test
+    void bufferedPrescriptionIsReadableUntilOneBulkInsertStoresIt() throws Exception {
+        PrescriptionWriteBuffer buffer = open();
+        Prescription first = prescription(1L);
+
+        assertThat(buffer.offer(first)).isEqualTo(Offer.QUEUED);
+        assertThat(buffer.offer(prescription(2L))).isEqualTo(Offer.QUEUED);
+        assertThat(buffer.offer(prescription(1L))).isEqualTo(Offer.DUPLICATE);
+        assertThat(buffer.pending(1L)).isSameAs(first);
+        assertThat(Files.readAllLines(journal)).hasSize(2);
+
+        assertThat(buffer.flushPending()).isZero();
+
+        assertThat(inserted).containsExactly(List.of(1L, 2L));
+        assertThat(buffer.pending(1L)).isNull();
+        assertThat(Files.readAllLines(journal)).isEmpty();
+    }
+
+    @Test
+    void unflushedPrescriptionsAreReplayedAfterACrash() throws Exception {
+        PrescriptionWriteBuffer crashed = open();
+        crashed.offer(prescription(1L));
+        crashed.offer(prescription(2L));
+        // A write torn by the crash, never acknowledged
+        Files.writeString(journal, "{\"appointmentId\":3,\"medic", StandardOpenOption.APPEND);
+
+        PrescriptionWriteBuffer restarted = open();
+
+        assertThat(restarted.pending(1L).getMedication()).isEqualTo("Amoxicillin");
+        assertThat(restarted.pending(3L)).isNull();
+        assertThat(restarted.flushPending()).isZero();
+        assertThat(inserted).containsExactly(List.of(1L, 2L));
+    }
+
+    @Test
+    void alreadyStoredPrescriptionsAreDroppedAndFailedOnesKept() throws Exception {
+        PrescriptionWriteBuffer buffer = open();
+        buffer.offer(prescription(1L));
+        buffer.offer(prescription(2L));
+        buffer.offer(prescription(3L));
+        MongoBulkWriteException bulk = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0),
+                        new BulkWriteError(121, "Document failed validation", new BsonDocument(), 2)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk", bulk));
+
+        assertThat(buffer.flushPending()).isEqualTo(1);
+
+        assertThat(buffer.pending(1L)).isNull();
+        assertThat(buffer.pending(2L)).isNull();
+        assertThat(buffer.pending(3L)).isNotNull();
+        assertThat(Files.readAllLines(journal)).hasSize(1).allMatch(line -> line.contains("\"appointmentId\":3"));
+    }
+
+    @Test
+    void everythingStaysJournaledWhileMongoIsDown() throws Exception {
+        PrescriptionWriteBuffer buffer = open();
+        buffer.offer(prescription(1L));
+        buffer.offer(prescription(2L));
+        when(bulkOperations.execute()).thenThrow(new MongoSocketWriteException("down", new ServerAddress(),
+                new IOException("Connection refused")));
+
+        assertThat(buffer.flushPending()).isEqualTo(2);
+
+        assertThat(buffer.pending(2L)).isNotNull();
+        assertThat(Files.readAllLines(journal)).hasSize(2);
+    }
+
+    @Test
+    void fullBufferRefusesSoTheCallerWritesDirectly() throws Exception {
+        PrescriptionWriteBuffer buffer = open();
+        ReflectionTestUtils.setField(buffer, "capacity", 1);
+
+        assertThat(buffer.offer(prescription(1L))).isEqualTo(Offer.QUEUED);
+        assertThat(buffer.offer(prescription(2L))).isEqualTo(Offer.REFUSED);
+        assertThat(buffer.pending(2L)).isNull();
+    }
+
+    private PrescriptionWriteBuffer open() throws Exception {
+        PrescriptionWriteBuffer buffer = new PrescriptionWriteBuffer(mongoTemplate, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "capacity", 100);
+        ReflectionTestUtils.setField(buffer, "batchSize", 10);
+        ReflectionTestUtils.setField(buffer, "flushInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(buffer, "journalPath", journal);
+        buffer.open();
+        return buffer;
+    }
+
+    private static Prescription prescription(long appointmentId) {
+        return new Prescription("Jane Roe", appointmentId, "Amoxicillin", "500mg", null);
+    }
+}